@@ -0,0 +1,67 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * 基准测试使用的测试数据
+ */
+final class BenchmarkFiles {
+    private static final long SEED = 0x5A55_5552_4541L;
+
+    private BenchmarkFiles() {
+    }
+
+    /**
+     * 生成固定种子的随机数据
+     *
+     * @param size 长度
+     * @return 随机数据
+     */
+    static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(SEED).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * 在临时目录中创建一个指定大小的随机内容文件，可以超过2GB
+     *
+     * @param size 文件大小
+     * @return 文件路径
+     * @throws IOException 当出现IO异常时抛出
+     */
+    static Path randomFile(long size) throws IOException {
+        Path path = Files.createTempFile("saussureautils-benchmark-", ".bin");
+        byte[] chunk = randomBytes((int) Math.min(size, 1 << 20));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            long remaining = size;
+            while (remaining > 0) {
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, (int) Math.min(remaining, chunk.length));
+                while (buffer.hasRemaining()) {
+                    remaining -= channel.write(buffer);
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * 丢弃所有写入数据的输出流
+     */
+    static final class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
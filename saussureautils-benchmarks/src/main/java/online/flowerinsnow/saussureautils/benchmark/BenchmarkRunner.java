@@ -0,0 +1,38 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.SaussureUtils;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * <p>基准测试入口</p>
+ * <p>接受所有JMH命令行参数，未指定-rf/-rff时默认以JSON格式输出到jmh-result-版本号.json，便于对比不同版本</p>
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        OptionsBuilder builder = new OptionsBuilder();
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            builder.result("jmh-result-" + SaussureUtils.VERSION + ".json");
+        }
+        Options options = builder.parent(cmd).build();
+        new Runner(options).run();
+    }
+}
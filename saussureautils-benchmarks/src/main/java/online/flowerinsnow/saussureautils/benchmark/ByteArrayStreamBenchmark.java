@@ -0,0 +1,104 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.io.ByteArrayReadStream;
+import online.flowerinsnow.saussureautils.io.ByteArrayWriteStream;
+import online.flowerinsnow.saussureautils.io.UnsynchronizedByteArrayReadStream;
+import online.flowerinsnow.saussureautils.io.UnsynchronizedByteArrayWriteStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link ByteArrayWriteStream}与{@link ByteArrayReadStream}的基准测试</p>
+ * <p>variant为unsynchronized时测试{@link UnsynchronizedByteArrayWriteStream}与{@link UnsynchronizedByteArrayReadStream}</p>
+ * <p>流都会逃逸出测试方法，避免JIT通过逃逸分析消除锁；JDK 15以后偏向锁默认关闭，
+ * 在更早的JDK上可以加上-jvmArgsAppend -XX:-UseBiasedLocking对比</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ByteArrayStreamBenchmark {
+    @Param({"16", "1024", "65536", "1048576"})
+    public int size;
+
+    @Param({"64"})
+    public int chunk;
+
+    @Param({"synchronized", "unsynchronized"})
+    public String variant;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkFiles.randomBytes(size);
+    }
+
+    private ByteArrayWriteStream newWriteStream() {
+        return "unsynchronized".equals(variant) ? new UnsynchronizedByteArrayWriteStream() : new ByteArrayWriteStream();
+    }
+
+    private ByteArrayReadStream newReadStream() {
+        return "unsynchronized".equals(variant) ? new UnsynchronizedByteArrayReadStream(data) : new ByteArrayReadStream(data);
+    }
+
+    @Benchmark
+    public ByteArrayWriteStream writeSingleByte() {
+        ByteArrayWriteStream out = newWriteStream();
+        for (byte b : data) {
+            out.write(b);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public ByteArrayWriteStream writeChunks() {
+        ByteArrayWriteStream out = newWriteStream();
+        for (int off = 0; off < data.length; off += chunk) {
+            out.write(data, off, Math.min(chunk, data.length - off));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public byte[] writeAllToByteArray() {
+        ByteArrayWriteStream out = newWriteStream();
+        out.write(data, 0, data.length);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public void readSingleByte(Blackhole bh) {
+        ByteArrayReadStream in = newReadStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            bh.consume(b);
+        }
+        bh.consume(in);
+    }
+
+    @Benchmark
+    public byte[] readChunks(Blackhole bh) {
+        ByteArrayReadStream in = newReadStream();
+        byte[] buffer = new byte[chunk];
+        //noinspection StatementWithEmptyBody
+        while (in.read(buffer, 0, buffer.length) != -1) {
+        }
+        bh.consume(in);
+        return buffer;
+    }
+}
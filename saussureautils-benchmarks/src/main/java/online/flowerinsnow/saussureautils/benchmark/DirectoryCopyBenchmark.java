@@ -0,0 +1,94 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.io.CopyOption;
+import online.flowerinsnow.saussureautils.io.DirectoryCopier;
+import online.flowerinsnow.saussureautils.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link DirectoryCopier}复制大量小文件的基准测试，模拟世界文件夹</p>
+ * <p>concurrency为1时相当于逐个复制；skipUnchanged测试目标已是最新时只比较属性的开销</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DirectoryCopyBenchmark {
+    @Param({"2000"})
+    public int files;
+
+    @Param({"4096"})
+    public int fileSize;
+
+    @Param({"1", "8"})
+    public int concurrency;
+
+    private Path source;
+    private Path target;
+    private Path upToDate;
+    private ExecutorService executor;
+    private DirectoryCopier copier;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        source = Files.createTempDirectory("saussureautils-benchmark-");
+        byte[] data = BenchmarkFiles.randomBytes(fileSize);
+        for (int i = 0; i < files; i++) {
+            Path file = source.resolve("region" + i % 32).resolve("chunk" + i + ".dat");
+            Files.createDirectories(file.getParent());
+            Files.write(file, data);
+        }
+        executor = Executors.newFixedThreadPool(concurrency);
+        copier = new DirectoryCopier(executor, concurrency);
+        upToDate = Files.createTempDirectory("saussureautils-benchmark-");
+        copier.copy(source, upToDate, null, CopyOption.SKIP_UNCHANGED);
+    }
+
+    @Setup(Level.Invocation)
+    public void newTarget() throws IOException {
+        target = Files.createTempDirectory("saussureautils-benchmark-");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTarget() {
+        IOUtils.delete(target);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+        IOUtils.delete(source);
+        IOUtils.delete(upToDate);
+    }
+
+    @Benchmark
+    public DirectoryCopier.Result copy() throws IOException, InterruptedException {
+        return copier.copy(source, target, null);
+    }
+
+    @Benchmark
+    public DirectoryCopier.Result skipUnchanged() throws IOException, InterruptedException {
+        return copier.copy(source, upToDate, null, CopyOption.SKIP_UNCHANGED);
+    }
+}
@@ -0,0 +1,60 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.hash.FastHashAlgorithm;
+import online.flowerinsnow.saussureautils.hash.FastHashUtils;
+import online.flowerinsnow.saussureautils.hash.HashAlgorithm;
+import online.flowerinsnow.saussureautils.hash.HashUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FastHashUtils}的基准测试，以SHA-256作为对照
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FastHashBenchmark {
+    @Param({"16", "1024", "65536", "1048576"})
+    public int size;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkFiles.randomBytes(size);
+    }
+
+    @Benchmark
+    public long xxHash64() {
+        return FastHashUtils.hashToLong(FastHashAlgorithm.XXHASH64, data);
+    }
+
+    @Benchmark
+    public byte[] murmur3_128() {
+        return FastHashUtils.hash(FastHashAlgorithm.MURMUR3_128, data);
+    }
+
+    @Benchmark
+    public long crc32c() {
+        return FastHashUtils.hashToLong(FastHashAlgorithm.CRC32C, data);
+    }
+
+    @Benchmark
+    public byte[] sha256() {
+        return HashUtils.hash(HashAlgorithm.SHA256, data);
+    }
+}
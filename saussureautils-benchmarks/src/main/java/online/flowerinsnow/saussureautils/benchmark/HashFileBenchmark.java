@@ -0,0 +1,86 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.hash.HashAlgorithm;
+import online.flowerinsnow.saussureautils.hash.HashUtils;
+import online.flowerinsnow.saussureautils.hash.MerkleTree;
+import online.flowerinsnow.saussureautils.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link HashUtils}文件哈希的基准测试</p>
+ * <p>默认只测到256MB，多GB的文件可以通过 -p fileSize=4294967296 指定</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashFileBenchmark {
+    @Param({"SHA256"})
+    public HashAlgorithm algorithm;
+
+    @Param({"4096", "1048576", "268435456"})
+    public long fileSize;
+
+    private Path path;
+
+    @Setup
+    public void setup() throws IOException {
+        path = BenchmarkFiles.randomFile(fileSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        IOUtils.delete(path);
+    }
+
+    @Benchmark
+    public byte[] hashPath() throws IOException {
+        return HashUtils.hash(algorithm, path);
+    }
+
+    /**
+     * 经过输入流的旧路径，用于和{@link #hashPath()}的FileChannel路径对比
+     */
+    @Benchmark
+    public byte[] hashInputStream() throws IOException {
+        return HashUtils.hash(algorithm, Files.newInputStream(path), true);
+    }
+
+    @Benchmark
+    public byte[] hashFile() throws IOException {
+        File file = path.toFile();
+        return HashUtils.hash(algorithm, file);
+    }
+
+    /**
+     * 并行的Merkle树模式，输出格式与普通哈希不同，只用于比较耗时
+     */
+    @Benchmark
+    public byte[] treeHash() throws IOException {
+        return MerkleTree.hash(algorithm, path).root();
+    }
+
+    @Benchmark
+    public String hashPathToHex() throws IOException {
+        return HashUtils.hashToHex(algorithm, path);
+    }
+}
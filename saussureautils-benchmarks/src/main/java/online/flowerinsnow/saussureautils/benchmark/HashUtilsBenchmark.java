@@ -0,0 +1,84 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.hash.HashAlgorithm;
+import online.flowerinsnow.saussureautils.hash.HashUtils;
+import online.flowerinsnow.saussureautils.io.ByteArrayReadStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HashUtils}内存数据的基准测试，从16B的令牌到1MB的数据块
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashUtilsBenchmark {
+    @Param({"MD5", "SHA1", "SHA256", "SHA512"})
+    public HashAlgorithm algorithm;
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int size;
+
+    private byte[] data;
+    private byte[] digest;
+    private char[] chars;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkFiles.randomBytes(size);
+        digest = new byte[algorithm.digestLength()];
+        chars = new char[algorithm.size];
+    }
+
+    @Benchmark
+    public byte[] hashBytes() {
+        return HashUtils.hash(algorithm, data);
+    }
+
+    @Benchmark
+    public byte[] hashBytesByName() {
+        return HashUtils.hash(algorithm.name, data, 0, data.length);
+    }
+
+    @Benchmark
+    public String hashToHex() {
+        return HashUtils.hashToHex(algorithm, data);
+    }
+
+    @Benchmark
+    public byte[] hashIntoArray() {
+        HashUtils.hash(algorithm, data, 0, data.length, digest, 0);
+        return digest;
+    }
+
+    @Benchmark
+    public char[] hashToHexIntoArray() {
+        HashUtils.hashToHex(algorithm, data, 0, data.length, chars, 0);
+        return chars;
+    }
+
+    @Benchmark
+    public String hashToBase64() {
+        return HashUtils.hashToBase64(algorithm, data);
+    }
+
+    @Benchmark
+    public byte[] hashInputStream() throws IOException {
+        return HashUtils.hash(algorithm, new ByteArrayReadStream(data), true);
+    }
+}
@@ -0,0 +1,121 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.lang.HexUtils;
+import online.flowerinsnow.saussureautils.object.DWord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link HexUtils}的基准测试，16B~64B对应常见摘要长度，1MB对应大块数据的十六进制转储</p>
+ * <p>hexToStringViaChars是逐字节查表的路径，与走SWAR批量编码的hexToString对比</p>
+ * <p>legacy开头的方法是查找表之前基于{@link DWord}的实现，以及基于{@link Character#digit(char, int)}的常见解码写法，作为对照</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HexUtilsBenchmark {
+    private static final char[] LEGACY_DIGITS = HexUtils.hexChars();
+
+    @Param({"16", "32", "64", "1048576"})
+    public int size;
+
+    private byte[] data;
+    private String hex;
+    private char[] chars;
+    private byte[] bytes;
+    private byte[] ascii;
+    private ByteBuffer directSrc;
+    private ByteBuffer directDst;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkFiles.randomBytes(size);
+        hex = HexUtils.hexToString(data);
+        chars = new char[size * 2];
+        bytes = new byte[size];
+        ascii = new byte[size * 2];
+        directSrc = ByteBuffer.allocateDirect(size);
+        directSrc.put(data).flip();
+        directDst = ByteBuffer.allocateDirect(size * 2);
+    }
+
+    @Benchmark
+    public String hexToString() {
+        return HexUtils.hexToString(data);
+    }
+
+    @Benchmark
+    public DWord hexByte() {
+        return HexUtils.hex(data[0]);
+    }
+
+    @Benchmark
+    public String legacyHexToString() {
+        char[] array = new char[data.length * 2];
+        for (int i = 0; i < data.length; i++) {
+            DWord current = legacyHex(data[i]);
+            array[i * 2] = current.get1();
+            array[i * 2 + 1] = current.get2();
+        }
+        return new String(array);
+    }
+
+    @Benchmark
+    public char[] hexToChars() {
+        HexUtils.hexToChars(data, 0, data.length, chars, 0);
+        return chars;
+    }
+
+    @Benchmark
+    public String hexToStringViaChars() {
+        HexUtils.hexToChars(data, 0, data.length, chars, 0);
+        return new String(chars);
+    }
+
+    @Benchmark
+    public byte[] hexToBytes() {
+        HexUtils.hexToBytes(data, 0, data.length, ascii, 0, false);
+        return ascii;
+    }
+
+    @Benchmark
+    public ByteBuffer hexToDirectBuffer() {
+        directSrc.rewind();
+        directDst.clear();
+        HexUtils.hexToBuffer(directSrc, directDst, false);
+        return directDst;
+    }
+
+    @Benchmark
+    public byte[] parseHex() {
+        HexUtils.parseHex(hex, 0, hex.length(), bytes, 0);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] legacyParseHex() {
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (Character.digit(hex.charAt(i * 2), 16) << 4 | Character.digit(hex.charAt(i * 2 + 1), 16));
+        }
+        return bytes;
+    }
+
+    private static DWord legacyHex(byte b) {
+        return new DWord(LEGACY_DIGITS[(b >>> 4) & 0xF], LEGACY_DIGITS[b & 0xF]);
+    }
+}
@@ -0,0 +1,116 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.io.ByteArrayReadStream;
+import online.flowerinsnow.saussureautils.io.ByteArrayWriteStream;
+import online.flowerinsnow.saussureautils.io.CopyOption;
+import online.flowerinsnow.saussureautils.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link IOUtils}复制的基准测试</p>
+ * <p>默认只测到256MB，多GB的文件可以通过 -p size=4294967296 指定，此时内存流的测试（copyStreamTo*）会在准备阶段失败，需要用正则排除</p>
+ * <p>options为逗号分隔的{@link CopyOption}，SMALL_BUFFER,NO_ZERO_COPY为固定8KB缓冲区；最初固定1KB缓冲区的实现见{@link LegacyCopyBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IOUtilsBenchmark {
+    @Param({"16", "65536", "16777216", "268435456"})
+    public long size;
+
+    @Param({"", "NO_ZERO_COPY", "SMALL_BUFFER,NO_ZERO_COPY"})
+    public String options;
+
+    private CopyOption[] copyOptions;
+
+    private byte[] data;
+    private Path source;
+    private Path target;
+
+    @Setup
+    public void setup(BenchmarkParams params) throws IOException {
+        if (params.getBenchmark().contains(".copyStreamTo")) {
+            // 内存流的测试受数组长度限制，不支持时直接失败，以免报告没有意义的结果
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("In-memory benchmarks support at most " + (Integer.MAX_VALUE - 8) + " bytes, exclude them for size=" + size);
+            }
+            data = BenchmarkFiles.randomBytes((int) size);
+        }
+        copyOptions = options.isEmpty() ? new CopyOption[0] : Arrays.stream(options.split(",")).map(CopyOption::valueOf).toArray(CopyOption[]::new);
+        source = BenchmarkFiles.randomFile(size);
+        target = Files.createTempFile("saussureautils-benchmark-", ".copy");
+    }
+
+    @TearDown
+    public void tearDown() {
+        IOUtils.delete(source);
+        IOUtils.delete(target);
+    }
+
+    @Benchmark
+    public ByteArrayWriteStream copyStreamToStream() throws IOException {
+        ByteArrayWriteStream out = new ByteArrayWriteStream();
+        IOUtils.copy(new ByteArrayReadStream(data), out, copyOptions);
+        return out;
+    }
+
+    @Benchmark
+    public void copyPathToStream() throws IOException {
+        IOUtils.copy(source, new BenchmarkFiles.NullOutputStream(), copyOptions);
+    }
+
+    @Benchmark
+    public void copyStreamToPath() throws IOException {
+        IOUtils.copy(new ByteArrayReadStream(data), target, copyOptions);
+    }
+
+    @Benchmark
+    public void copyPathToPath() throws IOException {
+        IOUtils.copy(source, target, copyOptions);
+    }
+
+    @Benchmark
+    public void copyPathToNewPath() throws IOException {
+        Files.delete(target);
+        IOUtils.copy(source, target, copyOptions);
+    }
+
+    @Benchmark
+    public void copyFileStreamToFileStream() throws IOException {
+        try (FileInputStream in = new FileInputStream(source.toFile()); FileOutputStream out = new FileOutputStream(target.toFile())) {
+            IOUtils.copy(in, out, copyOptions);
+        }
+    }
+
+    @Benchmark
+    public void copyPathToChannel() throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            IOUtils.copy(source, out, copyOptions);
+        }
+    }
+}
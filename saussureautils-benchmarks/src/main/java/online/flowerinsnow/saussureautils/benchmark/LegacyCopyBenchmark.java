@@ -0,0 +1,88 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.io.ByteArrayReadStream;
+import online.flowerinsnow.saussureautils.io.ByteArrayWriteStream;
+import online.flowerinsnow.saussureautils.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>最初的{@link IOUtils}复制实现（固定1KB缓冲区）的基准测试，用作{@link IOUtilsBenchmark}的对照</p>
+ * <p>方法名与{@link IOUtilsBenchmark}中对应的方法相同</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LegacyCopyBenchmark {
+    @Param({"16", "65536", "16777216", "268435456"})
+    public long size;
+
+    private byte[] data;
+    private Path source;
+    private Path target;
+
+    @Setup
+    public void setup(BenchmarkParams params) throws IOException {
+        if (params.getBenchmark().contains(".copyStreamTo")) {
+            // 内存流的测试受数组长度限制，不支持时直接失败，以免报告没有意义的结果
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("In-memory benchmarks support at most " + (Integer.MAX_VALUE - 8) + " bytes, exclude them for size=" + size);
+            }
+            data = BenchmarkFiles.randomBytes((int) size);
+        }
+        source = BenchmarkFiles.randomFile(size);
+        target = Files.createTempFile("saussureautils-benchmark-", ".copy");
+    }
+
+    @TearDown
+    public void tearDown() {
+        IOUtils.delete(source);
+        IOUtils.delete(target);
+    }
+
+    @Benchmark
+    public ByteArrayWriteStream copyStreamToStream() throws IOException {
+        ByteArrayWriteStream out = new ByteArrayWriteStream();
+        copy(new ByteArrayReadStream(data), out);
+        return out;
+    }
+
+    @Benchmark
+    public void copyPathToPath() throws IOException {
+        try (InputStream in = Files.newInputStream(source); OutputStream out = Files.newOutputStream(target)) {
+            copy(in, out);
+        }
+    }
+
+    /**
+     * 最初的IOUtils.copy(InputStream, OutputStream)
+     */
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        int len;
+        byte[] bytes = new byte[1024];
+        while ((len = in.read(bytes)) != -1) {
+            out.write(bytes, 0, len);
+        }
+    }
+}
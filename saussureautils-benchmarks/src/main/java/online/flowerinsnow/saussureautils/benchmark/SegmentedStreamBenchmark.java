@@ -0,0 +1,60 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.io.SegmentedByteArrayWriteStream;
+import online.flowerinsnow.saussureautils.io.UnsynchronizedByteArrayWriteStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link SegmentedByteArrayWriteStream}与按倍数扩容的{@link UnsynchronizedByteArrayWriteStream}的对比</p>
+ * <p>两者都从默认大小开始，以8KB为单位写入total字节，再写出到空输出流</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentedStreamBenchmark {
+    @Param({"1048576", "67108864"})
+    public int total;
+
+    private byte[] chunk;
+
+    @Setup
+    public void setup() {
+        chunk = BenchmarkFiles.randomBytes(8192);
+    }
+
+    @Benchmark
+    public UnsynchronizedByteArrayWriteStream doubling() throws IOException {
+        UnsynchronizedByteArrayWriteStream out = new UnsynchronizedByteArrayWriteStream();
+        for (int written = 0; written < total; written += chunk.length) {
+            out.write(chunk, 0, chunk.length);
+        }
+        out.writeTo(new BenchmarkFiles.NullOutputStream());
+        return out;
+    }
+
+    @Benchmark
+    public SegmentedByteArrayWriteStream segmented() throws IOException {
+        SegmentedByteArrayWriteStream out = new SegmentedByteArrayWriteStream();
+        for (int written = 0; written < total; written += chunk.length) {
+            out.write(chunk, 0, chunk.length);
+        }
+        out.writeTo(new BenchmarkFiles.NullOutputStream());
+        return out;
+    }
+}
@@ -0,0 +1,114 @@
+package online.flowerinsnow.saussureautils.benchmark;
+
+import online.flowerinsnow.saussureautils.io.ByteArrayReadStream;
+import online.flowerinsnow.saussureautils.io.ByteArrayWriteStream;
+import online.flowerinsnow.saussureautils.io.UnsynchronizedByteArrayWriteStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link ByteArrayWriteStream#writeInt(int)}等方法与{@link DataOutputStream}套{@link ByteArrayOutputStream}的对比</p>
+ * <p>每条记录包含一个int、一个long和一个短字符串</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+    @Param({"1000"})
+    public int records;
+
+    private int[] ints;
+    private long[] longs;
+    private String[] strings;
+    private byte[] encoded;
+    private byte[] legacyEncoded;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(0);
+        ints = new int[records];
+        longs = new long[records];
+        strings = new String[records];
+        for (int i = 0; i < records; i++) {
+            ints[i] = random.nextInt(1 << 20);
+            longs[i] = random.nextLong();
+            strings[i] = "record-" + i;
+        }
+        encoded = write().toByteArray();
+        legacyEncoded = legacyWrite().toByteArray();
+    }
+
+    @Benchmark
+    public ByteArrayWriteStream write() {
+        ByteArrayWriteStream out = new UnsynchronizedByteArrayWriteStream(64);
+        for (int i = 0; i < records; i++) {
+            out.writeInt(ints[i]);
+            out.writeLong(longs[i]);
+            out.writeUTF8(strings[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public ByteArrayWriteStream writeVarInt() {
+        ByteArrayWriteStream out = new UnsynchronizedByteArrayWriteStream(64);
+        for (int i = 0; i < records; i++) {
+            out.writeVarInt(ints[i]);
+            out.writeZigZagLong(longs[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream legacyWrite() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < records; i++) {
+            out.writeInt(ints[i]);
+            out.writeLong(longs[i]);
+            out.writeUTF(strings[i]);
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public void read(Blackhole bh) {
+        ByteArrayReadStream in = new ByteArrayReadStream(encoded);
+        for (int i = 0; i < records; i++) {
+            bh.consume(in.readInt());
+            bh.consume(in.readLong());
+            bh.consume(in.readUTF8());
+        }
+    }
+
+    @Benchmark
+    public void legacyRead(Blackhole bh) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(legacyEncoded));
+        for (int i = 0; i < records; i++) {
+            bh.consume(in.readInt());
+            bh.consume(in.readLong());
+            bh.consume(in.readUTF());
+        }
+    }
+}
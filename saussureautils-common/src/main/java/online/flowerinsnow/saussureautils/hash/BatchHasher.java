@@ -0,0 +1,195 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import online.flowerinsnow.saussureautils.lang.HexUtils;
+import online.flowerinsnow.saussureautils.object.IExceptionHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * <p>批量哈希，在指定的线程池中并发计算大量文件或数据的哈希</p>
+ * <p>同时进行的任务数不会超过指定的并发数，对于文件而言即同时打开的文件数</p>
+ * <p>每个文件的IO异常交给异常处理器处理，对应结果为null，不会中断其它文件</p>
+ * <p>异常处理器会在线程池的多个工作线程中被并发调用，必须是线程安全的；异常处理器抛出的异常会使对应结果异常完成</p>
+ * <p>例如：</p>
+ * <p>BatchHasher hasher = new BatchHasher(HashAlgorithm.SHA256, executor, 8);</p>
+ * <p>Map&lt;Path, CompletableFuture&lt;String&gt;&gt; result = hasher.hashToHex(paths, new PrintStackTraceExceptionHandler&lt;&gt;());</p>
+ */
+public class BatchHasher {
+    private final HashAlgorithm algorithm;
+    private final Executor executor;
+    private final int concurrency;
+
+    /**
+     * @param algorithm 算法
+     * @param executor 执行哈希的线程池
+     * @param concurrency 最大并发数，即同时打开的文件数
+     * @throws IllegalArgumentException 当最大并发数不是正数时抛出
+     */
+    public BatchHasher(@NotNull HashAlgorithm algorithm, @NotNull Executor executor, int concurrency) throws IllegalArgumentException {
+        Objects.requireNonNull(algorithm);
+        Objects.requireNonNull(executor);
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        this.algorithm = algorithm;
+        this.executor = executor;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * 使用公共线程池，最大并发数为CPU核心数
+     *
+     * @param algorithm 算法
+     */
+    public BatchHasher(@NotNull HashAlgorithm algorithm) {
+        this(algorithm, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 批量哈希文件
+     *
+     * @param sources 文件，重复的文件只计算一次，可以传入stream::iterator
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 按输入顺序排列的每个文件对应的结果，出现异常的文件结果为null
+     */
+    public @NotNull Map<Path, CompletableFuture<byte[]>> hash(@NotNull Iterable<Path> sources, @Nullable IExceptionHandler<IOException> exceptionHandler) {
+        Objects.requireNonNull(sources);
+        return schedule(sources, path -> HashUtils.hash(algorithm, path), exceptionHandler);
+    }
+
+    /**
+     * 批量哈希文件
+     *
+     * @param sources 文件，重复的文件只计算一次
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 按输入顺序排列的每个文件对应的结果，出现异常的文件结果为null
+     */
+    public @NotNull Map<File, CompletableFuture<byte[]>> hashFiles(@NotNull Iterable<File> sources, @Nullable IExceptionHandler<IOException> exceptionHandler) {
+        Objects.requireNonNull(sources);
+        return schedule(sources, file -> HashUtils.hash(algorithm, file), exceptionHandler);
+    }
+
+    /**
+     * 批量哈希内存中的数据
+     *
+     * @param sources 每个键对应的数据
+     * @return 按输入顺序排列的每个键对应的结果
+     * @param <K> 键类型
+     */
+    public <K> @NotNull Map<K, CompletableFuture<byte[]>> hashBytes(@NotNull Map<K, byte[]> sources) {
+        Objects.requireNonNull(sources);
+        return schedule(sources.keySet(), key -> HashUtils.hash(algorithm, sources.get(key)), null);
+    }
+
+    /**
+     * 批量哈希文件，并将其转换为十六进制字符串
+     *
+     * @param sources 文件，重复的文件只计算一次
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 按输入顺序排列的每个文件对应的十六进制字符串，出现异常的文件结果为null
+     */
+    public @NotNull Map<Path, CompletableFuture<String>> hashToHex(@NotNull Iterable<Path> sources, @Nullable IExceptionHandler<IOException> exceptionHandler) {
+        Map<Path, CompletableFuture<String>> result = new LinkedHashMap<>();
+        for (Map.Entry<Path, CompletableFuture<byte[]>> entry : hash(sources, exceptionHandler).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().thenApply(bytes -> bytes == null ? null : HexUtils.hexToString(bytes)));
+        }
+        return result;
+    }
+
+    /**
+     * 批量哈希文件，并将其转换为Base64字符串
+     *
+     * @param sources 文件，重复的文件只计算一次
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 按输入顺序排列的每个文件对应的Base64字符串，出现异常的文件结果为null
+     */
+    public @NotNull Map<Path, CompletableFuture<String>> hashToBase64(@NotNull Iterable<Path> sources, @Nullable IExceptionHandler<IOException> exceptionHandler) {
+        Map<Path, CompletableFuture<String>> result = new LinkedHashMap<>();
+        for (Map.Entry<Path, CompletableFuture<byte[]>> entry : hash(sources, exceptionHandler).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().thenApply(bytes -> bytes == null ? null : Base64.getEncoder().encodeToString(bytes)));
+        }
+        return result;
+    }
+
+    /**
+     * 等待所有结果完成
+     *
+     * @param futures 批量哈希的结果
+     * @return 所有结果完成时完成
+     */
+    public static @NotNull CompletableFuture<Void> allOf(@NotNull Map<?, ? extends CompletableFuture<?>> futures) {
+        Objects.requireNonNull(futures);
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * 启动不超过最大并发数的工作任务，每个工作任务不断从队列中取出下一个键，直到队列为空
+     */
+    private <K> Map<K, CompletableFuture<byte[]>> schedule(Iterable<K> keys, HashFunction<K> function, IExceptionHandler<IOException> exceptionHandler) {
+        Map<K, CompletableFuture<byte[]>> result = new LinkedHashMap<>();
+        Queue<K> pending = new ConcurrentLinkedQueue<>();
+        for (K key : keys) {
+            Objects.requireNonNull(key);
+            if (!result.containsKey(key)) {
+                result.put(key, new CompletableFuture<>());
+                pending.add(key);
+            }
+        }
+        int workers = Math.min(concurrency, pending.size());
+        int started = 0;
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(() -> {
+                    K key;
+                    while ((key = pending.poll()) != null) {
+                        CompletableFuture<byte[]> future = result.get(key);
+                        try {
+                            future.complete(function.apply(key));
+                        } catch (IOException e) {
+                            try {
+                                if (exceptionHandler != null) {
+                                    exceptionHandler.accept(e);
+                                }
+                                future.complete(null);
+                            } catch (Throwable t) {
+                                // 异常处理器抛出异常时也要完成结果，并继续处理队列中的其它键
+                                t.addSuppressed(e);
+                                future.completeExceptionally(t);
+                            }
+                        } catch (Throwable t) {
+                            future.completeExceptionally(t);
+                        }
+                    }
+                });
+                started++;
+            } catch (RejectedExecutionException e) {
+                if (started == 0 && i == workers - 1) {
+                    K key;
+                    while ((key = pending.poll()) != null) {
+                        result.get(key).completeExceptionally(e);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface HashFunction<K> {
+        byte[] apply(K key) throws IOException;
+    }
+}
@@ -0,0 +1,104 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.zip.Checksum;
+
+/**
+ * <p>CRC32C（Castagnoli），结果以大端序输出</p>
+ * <p>在Java 9及以上使用JDK自带的java.util.zip.CRC32C（有硬件指令加速），Java 8使用查表的纯Java实现</p>
+ */
+public final class Crc32cHasher extends FastHasher {
+    private static final MethodHandle JDK_CONSTRUCTOR;
+    private static final int[] TABLE = new int[256];
+
+    static {
+        MethodHandle constructor;
+        try {
+            Class<?> cls = Class.forName("java.util.zip.CRC32C");
+            constructor = MethodHandles.publicLookup().findConstructor(cls, MethodType.methodType(void.class)).asType(MethodType.methodType(Checksum.class));
+        } catch (ReflectiveOperationException e) {
+            constructor = null;
+        }
+        JDK_CONSTRUCTOR = constructor;
+        for (int i = 0; i < 256; i++) {
+            int crc = i;
+            for (int j = 0; j < 8; j++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0x82F63B78 : crc >>> 1;
+            }
+            TABLE[i] = crc;
+        }
+    }
+
+    private final Checksum jdk;
+    private int crc;
+
+    public Crc32cHasher() {
+        Checksum checksum = null;
+        if (JDK_CONSTRUCTOR != null) {
+            try {
+                checksum = (Checksum) JDK_CONSTRUCTOR.invokeExact();
+            } catch (Throwable ignored) {
+            }
+        }
+        this.jdk = checksum;
+        reset();
+    }
+
+    /**
+     * 是否正在使用JDK自带的实现
+     *
+     * @return 若使用JDK自带的实现，返回true
+     */
+    public static boolean isJdkImplementation() {
+        return JDK_CONSTRUCTOR != null;
+    }
+
+    @Override
+    public FastHashAlgorithm algorithm() {
+        return FastHashAlgorithm.CRC32C;
+    }
+
+    @Override
+    public Crc32cHasher update(byte[] src, int off, int len) {
+        checkBounds(src, off, len);
+        if (jdk != null) {
+            jdk.update(src, off, len);
+            return this;
+        }
+        int c = crc;
+        for (int i = off, end = off + len; i < end; i++) {
+            c = (c >>> 8) ^ TABLE[(c ^ src[i]) & 0xFF];
+        }
+        crc = c;
+        return this;
+    }
+
+    @Override
+    public byte[] digest() {
+        int value = (int) digestToLong();
+        return new byte[] {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+
+    /**
+     * 完成哈希，返回32位无符号的校验值，并重置本哈希器
+     *
+     * @return 校验值
+     */
+    @Override
+    public long digestToLong() {
+        long value = jdk != null ? jdk.getValue() : ~crc & 0xFFFFFFFFL;
+        reset();
+        return value;
+    }
+
+    @Override
+    public Crc32cHasher reset() {
+        if (jdk != null) {
+            jdk.reset();
+        }
+        crc = 0xFFFFFFFF;
+        return this;
+    }
+}
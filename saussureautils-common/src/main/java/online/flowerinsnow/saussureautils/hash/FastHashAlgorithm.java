@@ -0,0 +1,45 @@
+package online.flowerinsnow.saussureautils.hash;
+
+/**
+ * <p>已知支持的非加密哈希算法</p>
+ * <p>它们比{@link HashAlgorithm}快得多，适合缓存键、变更检测和分片等场景，但不能抵抗人为构造的碰撞，不要用于安全相关的用途</p>
+ */
+public enum FastHashAlgorithm {
+    XXHASH64("xxHash64", 16),
+    MURMUR3_128("Murmur3_128", 32),
+    CRC32C("CRC32C", 8);
+    public final String name;
+    public final int size;
+
+    FastHashAlgorithm(String name, int size) {
+        this.name = name;
+        this.size = size;
+    }
+
+    /**
+     * 获取哈希结果的字节数，{@link #size}为十六进制字符串的长度
+     *
+     * @return 哈希结果的字节数
+     */
+    public int digestLength() {
+        return size >>> 1;
+    }
+
+    /**
+     * 创建一个使用默认种子的流式哈希器
+     *
+     * @return 哈希器
+     */
+    public FastHasher newHasher() {
+        switch (this) {
+            case XXHASH64:
+                return new XxHash64Hasher();
+            case MURMUR3_128:
+                return new Murmur3Hasher();
+            case CRC32C:
+                return new Crc32cHasher();
+            default:
+                throw new AssertionError(this);
+        }
+    }
+}
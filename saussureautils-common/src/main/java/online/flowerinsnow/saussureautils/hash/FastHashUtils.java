@@ -0,0 +1,507 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import online.flowerinsnow.saussureautils.io.BufferPool;
+import online.flowerinsnow.saussureautils.io.IOUtils;
+import online.flowerinsnow.saussureautils.lang.HexUtils;
+import online.flowerinsnow.saussureautils.object.IExceptionHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+
+/**
+ * <p>非加密哈希算法相关常用类，用法与{@link HashUtils}相同</p>
+ * <p>适合缓存键、变更检测和分片等场景，不要用于安全相关的用途</p>
+ */
+public class FastHashUtils {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(BUFFER_SIZE));
+
+    private FastHashUtils() {
+    }
+
+    /**
+     * 用算法哈希一个byte数组
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @return 哈希后的数据
+     */
+    public static byte[] hash(FastHashAlgorithm algorithm, byte[] src, int off, int len) {
+        FastHasher hasher = algorithm.newHasher();
+        hasher.update(src, off, len);
+        return hasher.digest();
+    }
+
+    /**
+     * 用算法哈希一个byte数组
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希后的数据
+     */
+    public static byte[] hash(FastHashAlgorithm algorithm, byte[] src) {
+        return hash(algorithm, src, 0, src.length);
+    }
+
+    /**
+     * 用算法哈希缓冲区剩余的数据，完成后缓冲区的位置会移动到末尾
+     *
+     * @param algorithm 算法
+     * @param src 源数据，可以是直接缓冲区
+     * @return 哈希后的数据
+     */
+    public static byte[] hash(FastHashAlgorithm algorithm, ByteBuffer src) {
+        FastHasher hasher = algorithm.newHasher();
+        hasher.update(src);
+        return hasher.digest();
+    }
+
+    /**
+     * 用算法哈希一个byte数组，以long的形式返回
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @return 哈希值，与{@link FastHasher#digestToLong()}相同
+     */
+    public static long hashToLong(FastHashAlgorithm algorithm, byte[] src, int off, int len) {
+        FastHasher hasher = algorithm.newHasher();
+        hasher.update(src, off, len);
+        return hasher.digestToLong();
+    }
+
+    /**
+     * 用算法哈希一个byte数组，以long的形式返回
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希值，与{@link FastHasher#digestToLong()}相同
+     */
+    public static long hashToLong(FastHashAlgorithm algorithm, byte[] src) {
+        return hashToLong(algorithm, src, 0, src.length);
+    }
+
+    /**
+     * 用算法哈希缓冲区剩余的数据，以long的形式返回，完成后缓冲区的位置会移动到末尾
+     *
+     * @param algorithm 算法
+     * @param src 源数据，可以是直接缓冲区
+     * @return 哈希值，与{@link FastHasher#digestToLong()}相同
+     */
+    public static long hashToLong(FastHashAlgorithm algorithm, ByteBuffer src) {
+        FastHasher hasher = algorithm.newHasher();
+        hasher.update(src);
+        return hasher.digestToLong();
+    }
+
+    /**
+     * 哈希一个byte数组，并将其转为十六进制字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @return 哈希并转换后的十六进制字符串
+     */
+    public static String hashToHex(FastHashAlgorithm algorithm, byte[] src, int off, int len) {
+        return HexUtils.hexToString(hash(algorithm, src, off, len));
+    }
+
+    /**
+     * 哈希一个byte数组，并将其转为十六进制字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希并转换后的十六进制字符串
+     */
+    public static String hashToHex(FastHashAlgorithm algorithm, byte[] src) {
+        return hashToHex(algorithm, src, 0, src.length);
+    }
+
+    /**
+     * 哈希缓冲区剩余的数据，并将其转为十六进制字符串，完成后缓冲区的位置会移动到末尾
+     *
+     * @param algorithm 算法
+     * @param src 源数据，可以是直接缓冲区
+     * @return 哈希并转换后的十六进制字符串
+     */
+    public static String hashToHex(FastHashAlgorithm algorithm, ByteBuffer src) {
+        return HexUtils.hexToString(hash(algorithm, src));
+    }
+
+    /**
+     * 哈希一个byte数组，并将其转为Base64字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @return 哈希并转换后的Base64字符串
+     */
+    public static String hashToBase64(FastHashAlgorithm algorithm, byte[] src, int off, int len) {
+        return Base64.getEncoder().encodeToString(hash(algorithm, src, off, len));
+    }
+
+    /**
+     * 哈希一个byte数组，并将其转为Base64字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希并转换后的Base64字符串
+     */
+    public static String hashToBase64(FastHashAlgorithm algorithm, byte[] src) {
+        return hashToBase64(algorithm, src, 0, src.length);
+    }
+
+    /**
+     * 哈希缓冲区剩余的数据，并将其转为Base64字符串，完成后缓冲区的位置会移动到末尾
+     *
+     * @param algorithm 算法
+     * @param src 源数据，可以是直接缓冲区
+     * @return 哈希并转换后的Base64字符串
+     */
+    public static String hashToBase64(FastHashAlgorithm algorithm, ByteBuffer src) {
+        return Base64.getEncoder().encodeToString(hash(algorithm, src));
+    }
+
+    /**
+     * 哈希输入流
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param close 在读取完毕后是否自动关闭流
+     * @return 哈希后的数据
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static byte[] hash(FastHashAlgorithm algorithm, InputStream src, boolean close) throws IOException {
+        FastHasher hasher = algorithm.newHasher();
+        BufferPool pool = IOUtils.getBufferPool();
+        byte[] bytes = pool.acquire(8192);
+        try {
+            int len;
+            while ((len = src.read(bytes)) != -1) {
+                hasher.update(bytes, 0, len);
+            }
+            return hasher.digest();
+        } finally {
+            pool.release(bytes);
+            if (close) {
+                IOUtils.closeQuietly(src);
+            }
+        }
+    }
+
+    /**
+     * 哈希输入流，并将异常交由异常处理器处理
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param close 在读取完毕后是否自动关闭流
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 哈希后的数据
+     */
+    public static byte[] hash(FastHashAlgorithm algorithm, InputStream src, boolean close, IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hash(algorithm, src, close);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 哈希文件
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希后的数据
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static byte[] hash(FastHashAlgorithm algorithm, Path src) throws IOException {
+        return update(algorithm.newHasher(), src).digest();
+    }
+
+    /**
+     * 哈希文件，并将异常交由异常处理器处理
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 哈希后的数据
+     */
+    public static byte[] hash(FastHashAlgorithm algorithm, Path src, IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hash(algorithm, src);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 哈希文件
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希后的数据
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static byte[] hash(FastHashAlgorithm algorithm, File src) throws IOException {
+        return hash(algorithm, src.toPath());
+    }
+
+    /**
+     * 哈希文件，并将异常交由异常处理器处理
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 哈希后的数据
+     */
+    public static byte[] hash(FastHashAlgorithm algorithm, File src, IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hash(algorithm, src);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 哈希输入流，并将其转换为十六进制字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param close 在读取完毕后是否自动关闭流
+     * @return 哈希并转换后的十六进制字符串
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static String hashToHex(FastHashAlgorithm algorithm, InputStream src, boolean close) throws IOException {
+        return HexUtils.hexToString(hash(algorithm, src, close));
+    }
+
+    /**
+     * 哈希输入流，并将其转换为十六进制字符串，并将异常交由异常处理器处理
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param close 在读取完毕后是否自动关闭流
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 哈希并转换后的十六进制字符串
+     */
+    public static String hashToHex(FastHashAlgorithm algorithm, InputStream src, boolean close, IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hashToHex(algorithm, src, close);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 哈希文件，并将其转换为十六进制字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希并转换后的十六进制字符串
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static String hashToHex(FastHashAlgorithm algorithm, Path src) throws IOException {
+        return HexUtils.hexToString(hash(algorithm, src));
+    }
+
+    /**
+     * 哈希文件，并将其转换为十六进制字符串，并将异常交由异常处理器处理
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 哈希并转换后的十六进制字符串
+     */
+    public static String hashToHex(FastHashAlgorithm algorithm, Path src, IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hashToHex(algorithm, src);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 哈希文件，并将其转换为十六进制字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希并转换后的十六进制字符串
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static String hashToHex(FastHashAlgorithm algorithm, File src) throws IOException {
+        return hashToHex(algorithm, src.toPath());
+    }
+
+    /**
+     * 哈希文件，并将其转换为十六进制字符串，并将异常交由异常处理器处理
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 哈希并转换后的十六进制字符串
+     */
+    public static String hashToHex(FastHashAlgorithm algorithm, File src, IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hashToHex(algorithm, src);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 哈希输入流，并将其转换为Base64字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param close 在读取完毕后是否自动关闭流
+     * @return 哈希并转换后的Base64字符串
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static String hashToBase64(FastHashAlgorithm algorithm, InputStream src, boolean close) throws IOException {
+        return Base64.getEncoder().encodeToString(hash(algorithm, src, close));
+    }
+
+    /**
+     * 哈希输入流，并将其转换为Base64字符串，并将异常交由异常处理器处理
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param close 在读取完毕后是否自动关闭流
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 哈希并转换后的Base64字符串
+     */
+    public static String hashToBase64(FastHashAlgorithm algorithm, InputStream src, boolean close, IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hashToBase64(algorithm, src, close);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 哈希文件，并将其转换为Base64字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希并转换后的Base64字符串
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static String hashToBase64(FastHashAlgorithm algorithm, Path src) throws IOException {
+        return Base64.getEncoder().encodeToString(hash(algorithm, src));
+    }
+
+    /**
+     * 哈希文件，并将其转换为Base64字符串，并将异常交由异常处理器处理
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 哈希并转换后的Base64字符串
+     */
+    public static String hashToBase64(FastHashAlgorithm algorithm, Path src, IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hashToBase64(algorithm, src);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 哈希文件，并将其转换为Base64字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希并转换后的Base64字符串
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static String hashToBase64(FastHashAlgorithm algorithm, File src) throws IOException {
+        return hashToBase64(algorithm, src.toPath());
+    }
+
+    /**
+     * 哈希文件，并将其转换为Base64字符串，并将异常交由异常处理器处理
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 哈希并转换后的Base64字符串
+     */
+    public static String hashToBase64(FastHashAlgorithm algorithm, File src, IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hashToBase64(algorithm, src);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 哈希文件，以long的形式返回
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @return 哈希值，与{@link FastHasher#digestToLong()}相同
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static long hashToLong(FastHashAlgorithm algorithm, Path src) throws IOException {
+        return update(algorithm.newHasher(), src).digestToLong();
+    }
+
+    /**
+     * 将文件的全部数据交给哈希器
+     *
+     * @param hasher 哈希器
+     * @param src 文件
+     * @return 哈希器本身
+     * @throws IOException 当出现IO异常时抛出
+     */
+    private static FastHasher update(FastHasher hasher, Path src) throws IOException {
+        ByteBuffer buffer = BUFFER.get();
+        try (FileChannel channel = FileChannel.open(src, StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                hasher.update(buffer);
+                buffer.clear();
+            }
+        }
+        return hasher;
+    }
+}
@@ -0,0 +1,128 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * <p>非加密哈希的流式哈希器，通过{@link FastHashAlgorithm#newHasher()}获取</p>
+ * <p>完成哈希后哈希器会被重置，可以继续用于下一份数据</p>
+ * <p>本类不是线程安全的</p>
+ */
+public abstract class FastHasher {
+    private byte[] scratch;
+
+    /**
+     * 获取算法
+     *
+     * @return 算法
+     */
+    public abstract FastHashAlgorithm algorithm();
+
+    /**
+     * 输入一段数据
+     *
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @return 本对象
+     * @throws IndexOutOfBoundsException 当下标越界时抛出
+     */
+    public abstract FastHasher update(@NotNull byte[] src, int off, int len) throws IndexOutOfBoundsException;
+
+    /**
+     * 输入一段数据
+     *
+     * @param src 源数据
+     * @return 本对象
+     */
+    public FastHasher update(@NotNull byte[] src) {
+        return update(src, 0, src.length);
+    }
+
+    /**
+     * 输入缓冲区剩余的数据，完成后缓冲区的位置会移动到末尾
+     *
+     * @param src 源数据，可以是直接缓冲区
+     * @return 本对象
+     */
+    public FastHasher update(@NotNull ByteBuffer src) {
+        Objects.requireNonNull(src);
+        if (src.hasArray()) {
+            int len = src.remaining();
+            update(src.array(), src.arrayOffset() + src.position(), len);
+            src.position(src.limit());
+            return this;
+        }
+        if (scratch == null) {
+            scratch = new byte[4096];
+        }
+        while (src.hasRemaining()) {
+            int len = Math.min(src.remaining(), scratch.length);
+            src.get(scratch, 0, len);
+            update(scratch, 0, len);
+        }
+        return this;
+    }
+
+    /**
+     * 完成哈希，并重置本哈希器
+     *
+     * @return 哈希后的数据，长度为{@link FastHashAlgorithm#digestLength()}
+     */
+    public abstract byte[] digest();
+
+    /**
+     * 完成哈希，以long的形式返回结果的前64位（不足64位的算法则为其数值），并重置本哈希器
+     *
+     * @return 哈希值
+     */
+    public abstract long digestToLong();
+
+    /**
+     * 丢弃已输入的数据，重置本哈希器
+     *
+     * @return 本对象
+     */
+    public abstract FastHasher reset();
+
+    static void checkBounds(byte[] src, int off, int len) {
+        Objects.requireNonNull(src);
+        if (off < 0 || len < 0 || len > src.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    static long getLongLE(byte[] b, int i) {
+        return (b[i] & 0xFFL)
+                | (b[i + 1] & 0xFFL) << 8
+                | (b[i + 2] & 0xFFL) << 16
+                | (b[i + 3] & 0xFFL) << 24
+                | (b[i + 4] & 0xFFL) << 32
+                | (b[i + 5] & 0xFFL) << 40
+                | (b[i + 6] & 0xFFL) << 48
+                | (b[i + 7] & 0xFFL) << 56;
+    }
+
+    static long getIntLE(byte[] b, int i) {
+        return (b[i] & 0xFFL)
+                | (b[i + 1] & 0xFFL) << 8
+                | (b[i + 2] & 0xFFL) << 16
+                | (b[i + 3] & 0xFFL) << 24;
+    }
+
+    static void putLongBE(byte[] b, int i, long value) {
+        for (int j = 7; j >= 0; j--) {
+            b[i + j] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    static void putLongLE(byte[] b, int i, long value) {
+        for (int j = 0; j < 8; j++) {
+            b[i + j] = (byte) value;
+            value >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * <p>文件哈希的读取引擎</p>
+ * <p>通过{@link FileChannel}把文件读入线程本地的直接缓冲区，再交给{@link MessageDigest#update(ByteBuffer)}，
+ * 相比1KB的输入流可以大幅减少系统调用和数组复制</p>
+ */
+final class FileDigests {
+    /**
+     * 每个线程的直接缓冲区大小
+     */
+    static final int BUFFER_SIZE = 256 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private FileDigests() {
+    }
+
+    /**
+     * 将文件的全部数据交给所有摘要对象
+     *
+     * @param src 文件
+     * @param digests 摘要对象
+     * @return 读取的字节数
+     * @throws IOException 当出现IO异常时抛出
+     */
+    static long update(Path src, MessageDigest... digests) throws IOException {
+        try (FileChannel channel = FileChannel.open(src, StandardOpenOption.READ)) {
+            return update(channel, digests);
+        }
+    }
+
+    /**
+     * 将文件通道从当前位置开始的全部数据交给所有摘要对象
+     *
+     * @param channel 文件通道
+     * @param digests 摘要对象
+     * @return 读取的字节数
+     * @throws IOException 当出现IO异常时抛出
+     */
+    static long update(FileChannel channel, MessageDigest... digests) throws IOException {
+        ByteBuffer buffer = BUFFER.get();
+        long total = 0;
+        buffer.clear();
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            int limit = buffer.limit();
+            for (MessageDigest md : digests) {
+                buffer.position(0);
+                md.update(buffer);
+            }
+            total += limit;
+            buffer.clear();
+        }
+        return total;
+    }
+
+    /**
+     * 将文件通道中指定区间的数据交给摘要对象，不会改变通道的位置，可以在多个线程中同时使用同一个通道
+     *
+     * @param channel 文件通道
+     * @param position 开始位置
+     * @param length 读取长度，到达文件末尾时提前结束
+     * @param md 摘要对象
+     * @return 读取的字节数
+     * @throws IOException 当出现IO异常时抛出
+     */
+    static long update(FileChannel channel, long position, long length, MessageDigest md) throws IOException {
+        ByteBuffer buffer = BUFFER.get();
+        long total = 0;
+        while (total < length) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), length - total));
+            int read = channel.read(buffer, position + total);
+            if (read == -1) {
+                break;
+            }
+            buffer.flip();
+            md.update(buffer);
+            total += read;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,357 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import online.flowerinsnow.saussureautils.io.IOUtils;
+import online.flowerinsnow.saussureautils.lang.HexUtils;
+import online.flowerinsnow.saussureautils.object.IExceptionHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>文件哈希缓存，记住 (路径, 大小, 修改时间, 文件标识) 对应的哈希结果</p>
+ * <p>文件标识在类Unix系统上包含inode，在不支持的系统上为空</p>
+ * <p>再次哈希时只读取文件属性，属性全部未变时直接返回缓存的结果，任意一项改变都会重新读取文件内容</p>
+ * <p>修改时间距离哈希时不足{@link #RACY_WINDOW_MILLIS}毫秒的文件不会被缓存，
+ * 因为在同一个时间精度内再次修改的文件无法通过修改时间区分</p>
+ * <p>超过最大条目数时淘汰最久未使用的条目，可以指定一个文件来保存和加载缓存</p>
+ * <p>本类是线程安全的</p>
+ */
+public class FileHashCache {
+    /**
+     * 修改时间距离哈希时在此范围内的文件不会被缓存
+     */
+    public static final long RACY_WINDOW_MILLIS = 2000;
+
+    private static final int MAGIC = 0x53464843;
+    private static final int VERSION = 1;
+
+    private final int maxEntries;
+    private final @Nullable Path file;
+    private final LinkedHashMap<Key, CachedDigest> entries;
+
+    /**
+     * 只在内存中缓存
+     *
+     * @param maxEntries 最大条目数
+     * @throws IllegalArgumentException 当最大条目数不是正数时抛出
+     */
+    public FileHashCache(int maxEntries) throws IllegalArgumentException {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.file = null;
+        this.entries = newLru(maxEntries);
+    }
+
+    /**
+     * 缓存并持久化到文件，若文件存在则立即加载，之后需要手动调用{@link #save()}保存
+     *
+     * @param maxEntries 最大条目数
+     * @param file 持久化文件
+     * @param exceptionHandler 加载失败时的异常处理器，可为空，加载失败时缓存为空
+     * @throws IllegalArgumentException 当最大条目数不是正数时抛出
+     */
+    public FileHashCache(int maxEntries, @NotNull Path file, @Nullable IExceptionHandler<IOException> exceptionHandler) throws IllegalArgumentException {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+        }
+        Objects.requireNonNull(file);
+        this.maxEntries = maxEntries;
+        this.file = file;
+        this.entries = newLru(maxEntries);
+        try {
+            load();
+        } catch (IOException e) {
+            entries.clear();
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+        }
+    }
+
+    /**
+     * 哈希文件，文件未改变时直接返回缓存的结果
+     *
+     * @param algorithm 算法
+     * @param src 文件
+     * @return 哈希后的数据
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public byte[] hash(@NotNull HashAlgorithm algorithm, @NotNull Path src) throws IOException {
+        Objects.requireNonNull(algorithm);
+        Objects.requireNonNull(src);
+        Key key = new Key(src.toAbsolutePath().normalize().toString(), algorithm);
+        Stamp before = Stamp.of(src);
+        synchronized (entries) {
+            CachedDigest entry = entries.get(key);
+            if (entry != null && entry.stamp.equals(before)) {
+                return entry.digest.clone();
+            }
+        }
+        byte[] digest = HashUtils.hash(algorithm, src);
+        Stamp after = Stamp.of(src);
+        if (before.equals(after) && System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(after.lastModified) >= RACY_WINDOW_MILLIS) {
+            synchronized (entries) {
+                entries.put(key, new CachedDigest(after, digest.clone()));
+            }
+        }
+        return digest;
+    }
+
+    /**
+     * 哈希文件，并将异常交由异常处理器处理
+     *
+     * @param algorithm 算法
+     * @param src 文件
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 哈希后的数据
+     */
+    public byte[] hash(@NotNull HashAlgorithm algorithm, @NotNull Path src, @Nullable IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hash(algorithm, src);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 哈希文件，并将其转换为十六进制字符串，文件未改变时直接返回缓存的结果
+     *
+     * @param algorithm 算法
+     * @param src 文件
+     * @return 哈希并转换后的十六进制字符串
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public String hashToHex(@NotNull HashAlgorithm algorithm, @NotNull Path src) throws IOException {
+        return HexUtils.hexToString(hash(algorithm, src));
+    }
+
+    /**
+     * 移除某个文件所有算法的缓存
+     *
+     * @param src 文件
+     */
+    public void invalidate(@NotNull Path src) {
+        Objects.requireNonNull(src);
+        String path = src.toAbsolutePath().normalize().toString();
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.path.equals(path));
+        }
+    }
+
+    /**
+     * 清空所有缓存
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * 获取当前的条目数
+     *
+     * @return 条目数
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 将缓存保存到构造时指定的文件中，先写入同目录下的临时文件再替换，不会留下写了一半的文件
+     *
+     * @throws IllegalStateException 当构造时没有指定文件时抛出
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public void save() throws IllegalStateException, IOException {
+        if (file == null) {
+            throw new IllegalStateException("No persistence file.");
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                synchronized (entries) {
+                    out.writeInt(entries.size());
+                    for (Map.Entry<Key, CachedDigest> e : entries.entrySet()) {
+                        out.writeUTF(e.getKey().path);
+                        out.writeUTF(e.getKey().algorithm.name());
+                        out.writeLong(e.getValue().stamp.size);
+                        out.writeLong(e.getValue().stamp.lastModified);
+                        out.writeUTF(e.getValue().stamp.fileKey);
+                        out.writeShort(e.getValue().digest.length);
+                        out.write(e.getValue().digest);
+                    }
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 将缓存保存到构造时指定的文件中，并将异常交由异常处理器处理
+     *
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 若本次执行没有出现异常，返回true
+     * @throws IllegalStateException 当构造时没有指定文件时抛出
+     */
+    public boolean save(@Nullable IExceptionHandler<IOException> exceptionHandler) throws IllegalStateException {
+        try {
+            save();
+            return true;
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return false;
+        }
+    }
+
+    private static LinkedHashMap<Key, CachedDigest> newLru(int maxEntries) {
+        return new LinkedHashMap<Key, CachedDigest>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedDigest> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private void load() throws IOException {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a hash cache file: " + file);
+            }
+            int count = in.readInt();
+            synchronized (entries) {
+                for (int i = 0; i < count; i++) {
+                    String path = in.readUTF();
+                    HashAlgorithm algorithm;
+                    try {
+                        algorithm = HashAlgorithm.valueOf(in.readUTF());
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Unknown algorithm in " + file, e);
+                    }
+                    Stamp stamp = new Stamp(in.readLong(), in.readLong(), in.readUTF());
+                    byte[] digest = new byte[in.readUnsignedShort()];
+                    in.readFully(digest);
+                    entries.put(new Key(path, algorithm), new CachedDigest(stamp, digest));
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    private static final class Key {
+        private final String path;
+        private final HashAlgorithm algorithm;
+
+        private Key(String path, HashAlgorithm algorithm) {
+            this.path = path;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return path.equals(key.path) && algorithm == key.algorithm;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 17;
+            result = 31 * result + path.hashCode();
+            result = 31 * result + algorithm.hashCode();
+            return result;
+        }
+    }
+
+    private static final class CachedDigest {
+        private final Stamp stamp;
+        private final byte[] digest;
+
+        private CachedDigest(Stamp stamp, byte[] digest) {
+            this.stamp = stamp;
+            this.digest = digest;
+        }
+    }
+
+    /**
+     * 判断文件是否改变所用的属性
+     */
+    private static final class Stamp {
+        private final long size;
+        private final long lastModified;
+        private final String fileKey;
+
+        private Stamp(long size, long lastModified, String fileKey) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fileKey = fileKey;
+        }
+
+        private static Stamp of(Path path) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                throw new IOException("Not a regular file: " + path);
+            }
+            Object fileKey = attributes.fileKey();
+            return new Stamp(attributes.size(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS), fileKey == null ? "" : fileKey.toString());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Stamp stamp = (Stamp) o;
+            return size == stamp.size && lastModified == stamp.lastModified && fileKey.equals(stamp.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 17;
+            result = 31 * result + Long.hashCode(size);
+            result = 31 * result + Long.hashCode(lastModified);
+            result = 31 * result + fileKey.hashCode();
+            return result;
+        }
+    }
+}
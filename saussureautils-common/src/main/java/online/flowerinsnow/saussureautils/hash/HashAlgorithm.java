@@ -17,4 +17,13 @@ public enum HashAlgorithm {
         this.name = name;
         this.size = size;
     }
+
+    /**
+     * 获取哈希结果的字节数，{@link #size}为十六进制字符串的长度
+     *
+     * @return 哈希结果的字节数
+     */
+    public int digestLength() {
+        return size >>> 1;
+    }
 }
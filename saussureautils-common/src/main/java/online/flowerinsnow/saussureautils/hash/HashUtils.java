@@ -1,5 +1,7 @@
 package online.flowerinsnow.saussureautils.hash;
 
+import online.flowerinsnow.saussureautils.exception.ShouldNotOccurException;
+import online.flowerinsnow.saussureautils.io.BufferPool;
 import online.flowerinsnow.saussureautils.io.IOUtils;
 import online.flowerinsnow.saussureautils.lang.HexUtils;
 import online.flowerinsnow.saussureautils.object.IExceptionHandler;
@@ -7,16 +9,31 @@ import online.flowerinsnow.saussureautils.object.IExceptionHandler;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.nio.file.Path;
+import java.security.DigestException;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 
 /**
  * 哈希算法相关常用类
  */
 public class HashUtils {
+    private static final int BUFFER_SIZE = 8192;
+    private static final char[] BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final int MAX_DIGEST_LENGTH;
+    static {
+        int max = 0;
+        for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+            max = Math.max(max, algorithm.digestLength());
+        }
+        MAX_DIGEST_LENGTH = max;
+    }
+    private static final ThreadLocal<byte[]> DIGEST_SCRATCH = ThreadLocal.withInitial(() -> new byte[MAX_DIGEST_LENGTH]);
+    private static final ThreadLocal<char[]> CHAR_SCRATCH = ThreadLocal.withInitial(() -> new char[base64Length(MAX_DIGEST_LENGTH)]);
+
     private HashUtils() {
     }
 
@@ -31,12 +48,12 @@ public class HashUtils {
      * @throws IllegalArgumentException 当算法不存在或不支持时抛出
      */
     public static byte[] hash(String algorithm, byte[] src, int off, int len) throws IllegalArgumentException {
+        MessageDigest md = MessageDigestCache.acquire(algorithm);
         try {
-            MessageDigest md = MessageDigest.getInstance(algorithm);
             md.update(src, off, len);
             return md.digest();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalArgumentException(e);
+        } finally {
+            MessageDigestCache.release(algorithm, md);
         }
     }
 
@@ -62,7 +79,13 @@ public class HashUtils {
      * @return 哈希后的数据
      */
     public static byte[] hash(HashAlgorithm algorithm, byte[] src, int off, int len) {
-        return hash(algorithm.name, src, off, len);
+        MessageDigest md = MessageDigestCache.acquire(algorithm);
+        try {
+            md.update(src, off, len);
+            return md.digest();
+        } finally {
+            MessageDigestCache.release(algorithm, md);
+        }
     }
 
     /**
@@ -73,7 +96,7 @@ public class HashUtils {
      * @return 哈希后的数据
      */
     public static byte[] hash(HashAlgorithm algorithm, byte[] src) {
-        return hash(algorithm.name, src, 0, src.length);
+        return hash(algorithm, src, 0, src.length);
     }
 
     /**
@@ -176,6 +199,146 @@ public class HashUtils {
         return Base64.getEncoder().encodeToString(hash(algorithm, src));
     }
 
+    /**
+     * 用算法哈希一个byte数组，并将结果写入到目标数组中，不会创建新的数组
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @param dst 目标数组
+     * @param dstOff 写入目标数组开始的下标
+     * @return 写入的字节数，即{@link HashAlgorithm#digestLength()}
+     * @throws IndexOutOfBoundsException 当目标数组空间不足时抛出
+     */
+    public static int hash(HashAlgorithm algorithm, byte[] src, int off, int len, byte[] dst, int dstOff) throws IndexOutOfBoundsException {
+        int length = algorithm.digestLength();
+        if (dstOff < 0 || length > dst.length - dstOff) {
+            throw new IndexOutOfBoundsException();
+        }
+        MessageDigest md = MessageDigestCache.acquire(algorithm);
+        try {
+            md.update(src, off, len);
+            return md.digest(dst, dstOff, length);
+        } catch (DigestException e) {
+            throw new ShouldNotOccurException(e);
+        } finally {
+            MessageDigestCache.release(algorithm, md);
+        }
+    }
+
+    /**
+     * <p>用算法哈希源缓冲区剩余的数据，并将结果写入到目标缓冲区中，不会创建新的数组</p>
+     * <p>源缓冲区的位置会移动到末尾，目标缓冲区的位置会向后移动写入的字节数</p>
+     *
+     * @param algorithm 算法
+     * @param src 源数据，可以是直接缓冲区
+     * @param dst 目标缓冲区，可以是直接缓冲区
+     * @return 写入的字节数，即{@link HashAlgorithm#digestLength()}
+     * @throws BufferOverflowException 当目标缓冲区剩余空间不足时抛出
+     * @throws ReadOnlyBufferException 当目标缓冲区只读时抛出
+     */
+    public static int hash(HashAlgorithm algorithm, ByteBuffer src, ByteBuffer dst) throws BufferOverflowException, ReadOnlyBufferException {
+        int length = algorithm.digestLength();
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        MessageDigest md = MessageDigestCache.acquire(algorithm);
+        try {
+            md.update(src);
+            if (dst.hasArray()) {
+                md.digest(dst.array(), dst.arrayOffset() + dst.position(), length);
+                dst.position(dst.position() + length);
+            } else {
+                byte[] scratch = DIGEST_SCRATCH.get();
+                md.digest(scratch, 0, length);
+                dst.put(scratch, 0, length);
+            }
+            return length;
+        } catch (DigestException e) {
+            throw new ShouldNotOccurException(e);
+        } finally {
+            MessageDigestCache.release(algorithm, md);
+        }
+    }
+
+    /**
+     * 哈希一个byte数组，并将其十六进制字符写入到目标数组中，不会创建新的数组或字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @param dst 目标数组
+     * @param dstOff 写入目标数组开始的下标
+     * @return 写入的字符数，即{@link HashAlgorithm#size}
+     * @throws IndexOutOfBoundsException 当目标数组空间不足时抛出
+     */
+    public static int hashToHex(HashAlgorithm algorithm, byte[] src, int off, int len, char[] dst, int dstOff) throws IndexOutOfBoundsException {
+        if (dstOff < 0 || algorithm.size > dst.length - dstOff) {
+            throw new IndexOutOfBoundsException();
+        }
+        byte[] scratch = DIGEST_SCRATCH.get();
+        int length = hash(algorithm, src, off, len, scratch, 0);
+        return HexUtils.hexToChars(scratch, 0, length, dst, dstOff);
+    }
+
+    /**
+     * 哈希一个byte数组，并将其十六进制字符追加到目标中，不会创建新的数组或字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @param dst 目标
+     * @return 目标本身
+     */
+    public static StringBuilder hashToHex(HashAlgorithm algorithm, byte[] src, int off, int len, StringBuilder dst) {
+        byte[] scratch = DIGEST_SCRATCH.get();
+        int length = hash(algorithm, src, off, len, scratch, 0);
+        return HexUtils.appendHex(dst, scratch, 0, length);
+    }
+
+    /**
+     * 哈希一个byte数组，并将其Base64字符写入到目标数组中，不会创建新的数组或字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @param dst 目标数组
+     * @param dstOff 写入目标数组开始的下标
+     * @return 写入的字符数
+     * @throws IndexOutOfBoundsException 当目标数组空间不足时抛出
+     */
+    public static int hashToBase64(HashAlgorithm algorithm, byte[] src, int off, int len, char[] dst, int dstOff) throws IndexOutOfBoundsException {
+        if (dstOff < 0 || base64Length(algorithm.digestLength()) > dst.length - dstOff) {
+            throw new IndexOutOfBoundsException();
+        }
+        byte[] scratch = DIGEST_SCRATCH.get();
+        int length = hash(algorithm, src, off, len, scratch, 0);
+        return base64(scratch, length, dst, dstOff);
+    }
+
+    /**
+     * 哈希一个byte数组，并将其Base64字符追加到目标中，不会创建新的数组或字符串
+     *
+     * @param algorithm 算法
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @param dst 目标
+     * @return 目标本身
+     */
+    public static StringBuilder hashToBase64(HashAlgorithm algorithm, byte[] src, int off, int len, StringBuilder dst) {
+        char[] chars = CHAR_SCRATCH.get();
+        int length = hashToBase64(algorithm, src, off, len, chars, 0);
+        return dst.append(chars, 0, length);
+    }
+
     /**
      * 哈希输入流
      *
@@ -187,17 +350,14 @@ public class HashUtils {
      * @throws IOException 当出现IO异常时抛出
      */
     public static byte[] hash(String algorithm, InputStream src, boolean close) throws IllegalArgumentException, IOException {
+        MessageDigest md = null;
         try {
-            MessageDigest md = MessageDigest.getInstance(algorithm);
-            int len;
-            byte[] bytes = new byte[1024];
-            while ((len = src.read(bytes)) != -1) {
-                md.update(bytes, 0, len);
-            }
-            return md.digest();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalArgumentException(e);
+            md = MessageDigestCache.acquire(algorithm);
+            return digest(md, src);
         } finally {
+            if (md != null) {
+                MessageDigestCache.release(algorithm, md);
+            }
             if (close) {
                 IOUtils.closeQuietly(src);
             }
@@ -235,7 +395,15 @@ public class HashUtils {
      * @throws IOException 当出现IO异常时抛出
      */
     public static byte[] hash(HashAlgorithm algorithm, InputStream src, boolean close) throws IOException {
-        return hash(algorithm.name, src, close);
+        MessageDigest md = MessageDigestCache.acquire(algorithm);
+        try {
+            return digest(md, src);
+        } finally {
+            MessageDigestCache.release(algorithm, md);
+            if (close) {
+                IOUtils.closeQuietly(src);
+            }
+        }
     }
 
     /**
@@ -268,7 +436,13 @@ public class HashUtils {
      * @throws IOException 当出现IO异常时抛出
      */
     public static byte[] hash(String algorithm, Path src) throws IllegalArgumentException, IOException {
-        return hash(algorithm, Files.newInputStream(src), true);
+        MessageDigest md = MessageDigestCache.acquire(algorithm);
+        try {
+            FileDigests.update(src, md);
+            return md.digest();
+        } finally {
+            MessageDigestCache.release(algorithm, md);
+        }
     }
 
     /**
@@ -300,7 +474,13 @@ public class HashUtils {
      * @throws IOException 当出现IO异常时抛出
      */
     public static byte[] hash(HashAlgorithm algorithm, Path src) throws IOException {
-        return hash(algorithm, Files.newInputStream(src), true);
+        MessageDigest md = MessageDigestCache.acquire(algorithm);
+        try {
+            FileDigests.update(src, md);
+            return md.digest();
+        } finally {
+            MessageDigestCache.release(algorithm, md);
+        }
     }
 
     /**
@@ -777,4 +957,66 @@ public class HashUtils {
             return null;
         }
     }
+
+    /**
+     * 计算Base64编码后的长度，包括填充
+     *
+     * @param length 原始字节数
+     * @return 编码后的字符数
+     */
+    private static int base64Length(int length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    /**
+     * 将byte数组以带填充的标准Base64写入到目标数组中，结果与{@link Base64#getEncoder()}相同
+     *
+     * @param src 源数据
+     * @param len 源数据长度
+     * @param dst 目标数组
+     * @param dstOff 写入目标数组开始的下标
+     * @return 写入的字符数
+     */
+    private static int base64(byte[] src, int len, char[] dst, int dstOff) {
+        int start = dstOff;
+        int i = 0;
+        for (; i + 3 <= len; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[dstOff++] = BASE64[bits >>> 18];
+            dst[dstOff++] = BASE64[(bits >>> 12) & 0x3F];
+            dst[dstOff++] = BASE64[(bits >>> 6) & 0x3F];
+            dst[dstOff++] = BASE64[bits & 0x3F];
+        }
+        int remaining = len - i;
+        if (remaining > 0) {
+            int bits = (src[i] & 0xFF) << 16 | (remaining == 2 ? (src[i + 1] & 0xFF) << 8 : 0);
+            dst[dstOff++] = BASE64[bits >>> 18];
+            dst[dstOff++] = BASE64[(bits >>> 12) & 0x3F];
+            dst[dstOff++] = remaining == 2 ? BASE64[(bits >>> 6) & 0x3F] : '=';
+            dst[dstOff++] = '=';
+        }
+        return dstOff - start;
+    }
+
+    /**
+     * 将输入流剩余的数据全部交给摘要对象，并完成哈希
+     *
+     * @param md 摘要对象
+     * @param src 输入流
+     * @return 哈希后的数据
+     * @throws IOException 当出现IO异常时抛出
+     */
+    private static byte[] digest(MessageDigest md, InputStream src) throws IOException {
+        int len;
+        BufferPool pool = IOUtils.getBufferPool();
+        byte[] bytes = pool.acquire(BUFFER_SIZE);
+        try {
+            while ((len = src.read(bytes)) != -1) {
+                md.update(bytes, 0, len);
+            }
+        } finally {
+            pool.release(bytes);
+        }
+        return md.digest();
+    }
 }
@@ -0,0 +1,245 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import online.flowerinsnow.saussureautils.exception.ShouldNotOccurException;
+import online.flowerinsnow.saussureautils.io.BufferPool;
+import online.flowerinsnow.saussureautils.io.IOUtils;
+import online.flowerinsnow.saussureautils.lang.HexUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>可重复使用的流式哈希器，可以分多次输入数据，并在一次读取中同时计算多个算法的哈希</p>
+ * <p>例如：</p>
+ * <p>Hasher hasher = new Hasher(HashAlgorithm.MD5, HashAlgorithm.SHA1, HashAlgorithm.SHA256);</p>
+ * <p>hasher.update(inputStream, true);</p>
+ * <p>Map&lt;HashAlgorithm, String&gt; result = hasher.digestToHex();</p>
+ * <p>完成哈希后哈希器会被重置，可以继续用于下一份数据</p>
+ * <p>本类不是线程安全的</p>
+ */
+public class Hasher {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final HashAlgorithm[] algorithms;
+    private final MessageDigest[] digests;
+    private long count;
+
+    /**
+     * 指定需要计算的算法，重复的算法只计算一次
+     *
+     * @param algorithms 算法
+     * @throws IllegalArgumentException 当没有指定任何算法时抛出
+     */
+    public Hasher(@NotNull HashAlgorithm... algorithms) throws IllegalArgumentException {
+        Objects.requireNonNull(algorithms);
+        LinkedHashSet<HashAlgorithm> set = new LinkedHashSet<>();
+        for (HashAlgorithm algorithm : algorithms) {
+            set.add(Objects.requireNonNull(algorithm));
+        }
+        if (set.isEmpty()) {
+            throw new IllegalArgumentException("At least 1 algorithm required.");
+        }
+        this.algorithms = set.toArray(new HashAlgorithm[0]);
+        this.digests = new MessageDigest[this.algorithms.length];
+        for (int i = 0; i < this.algorithms.length; i++) {
+            try {
+                digests[i] = MessageDigest.getInstance(this.algorithms[i].name);
+            } catch (NoSuchAlgorithmException e) {
+                throw new ShouldNotOccurException(e);
+            }
+        }
+    }
+
+    /**
+     * 输入一段数据
+     *
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @return 本对象
+     * @throws IndexOutOfBoundsException 当下标越界时抛出
+     */
+    public Hasher update(@NotNull byte[] src, int off, int len) throws IndexOutOfBoundsException {
+        Objects.requireNonNull(src);
+        if (off < 0 || len < 0 || len > src.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        for (MessageDigest md : digests) {
+            md.update(src, off, len);
+        }
+        count += len;
+        return this;
+    }
+
+    /**
+     * 输入一段数据
+     *
+     * @param src 源数据
+     * @return 本对象
+     */
+    public Hasher update(@NotNull byte[] src) {
+        return update(src, 0, src.length);
+    }
+
+    /**
+     * 输入缓冲区剩余的数据，完成后缓冲区的位置会移动到末尾
+     *
+     * @param src 源数据，可以是直接缓冲区
+     * @return 本对象
+     */
+    public Hasher update(@NotNull ByteBuffer src) {
+        Objects.requireNonNull(src);
+        int position = src.position();
+        int limit = src.limit();
+        for (MessageDigest md : digests) {
+            src.position(position);
+            md.update(src);
+        }
+        src.position(limit);
+        count += limit - position;
+        return this;
+    }
+
+    /**
+     * 输入输入流剩余的全部数据
+     *
+     * @param src 输入流
+     * @param close 在读取完毕后是否自动关闭流
+     * @return 本对象
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public Hasher update(@NotNull InputStream src, boolean close) throws IOException {
+        Objects.requireNonNull(src);
+        BufferPool pool = IOUtils.getBufferPool();
+        byte[] bytes = pool.acquire(BUFFER_SIZE);
+        try {
+            int len;
+            while ((len = src.read(bytes)) != -1) {
+                update(bytes, 0, len);
+            }
+            return this;
+        } finally {
+            pool.release(bytes);
+            if (close) {
+                IOUtils.closeQuietly(src);
+            }
+        }
+    }
+
+    /**
+     * 输入文件的全部数据
+     *
+     * @param src 文件
+     * @return 本对象
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public Hasher update(@NotNull Path src) throws IOException {
+        Objects.requireNonNull(src);
+        count += FileDigests.update(src, digests);
+        return this;
+    }
+
+    /**
+     * 获取一个输出流，写入的数据都会输入到本哈希器中，可以作为{@link IOUtils#copy(InputStream, OutputStream, online.flowerinsnow.saussureautils.io.CopyOption...)}的目标
+     *
+     * @return 输出流
+     */
+    public OutputStream asOutputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                for (MessageDigest md : digests) {
+                    md.update((byte) b);
+                }
+                count++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                update(b, off, len);
+            }
+        };
+    }
+
+    /**
+     * 获取自上次重置以来输入的字节数
+     *
+     * @return 输入的字节数
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * 获取本哈希器计算的算法
+     *
+     * @return 算法
+     */
+    public HashAlgorithm[] algorithms() {
+        return algorithms.clone();
+    }
+
+    /**
+     * 完成哈希，并重置本哈希器
+     *
+     * @return 每个算法对应的哈希后的数据
+     */
+    public Map<HashAlgorithm, byte[]> digest() {
+        EnumMap<HashAlgorithm, byte[]> result = new EnumMap<>(HashAlgorithm.class);
+        for (int i = 0; i < algorithms.length; i++) {
+            result.put(algorithms[i], digests[i].digest());
+        }
+        count = 0;
+        return result;
+    }
+
+    /**
+     * 完成哈希，将结果转为十六进制字符串，并重置本哈希器
+     *
+     * @return 每个算法对应的十六进制字符串
+     */
+    public Map<HashAlgorithm, String> digestToHex() {
+        EnumMap<HashAlgorithm, String> result = new EnumMap<>(HashAlgorithm.class);
+        for (Map.Entry<HashAlgorithm, byte[]> entry : digest().entrySet()) {
+            result.put(entry.getKey(), HexUtils.hexToString(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * 完成哈希，将结果转为Base64字符串，并重置本哈希器
+     *
+     * @return 每个算法对应的Base64字符串
+     */
+    public Map<HashAlgorithm, String> digestToBase64() {
+        EnumMap<HashAlgorithm, String> result = new EnumMap<>(HashAlgorithm.class);
+        for (Map.Entry<HashAlgorithm, byte[]> entry : digest().entrySet()) {
+            result.put(entry.getKey(), Base64.getEncoder().encodeToString(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * 丢弃已输入的数据，重置本哈希器
+     *
+     * @return 本对象
+     */
+    public Hasher reset() {
+        for (MessageDigest md : digests) {
+            md.reset();
+        }
+        count = 0;
+        return this;
+    }
+}
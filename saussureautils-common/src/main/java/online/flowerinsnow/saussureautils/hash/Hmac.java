@@ -0,0 +1,332 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import online.flowerinsnow.saussureautils.exception.ShouldNotOccurException;
+import online.flowerinsnow.saussureautils.io.BufferPool;
+import online.flowerinsnow.saussureautils.io.IOUtils;
+import online.flowerinsnow.saussureautils.lang.HexUtils;
+import online.flowerinsnow.saussureautils.object.IExceptionHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * <p>预先设置好密钥的HMAC，只在创建时初始化一次密钥</p>
+ * <p>每个线程通过复制已初始化的{@link Mac}得到自己的实例，之后重复使用，不再调用{@link Mac#getInstance(String)}和{@link Mac#init(java.security.Key)}</p>
+ * <p>十六进制和Base64的结果与{@link HashUtils#hashToHex(HashAlgorithm, byte[])}和{@link HashUtils#hashToBase64(HashAlgorithm, byte[])}的格式相同</p>
+ * <p>例如：</p>
+ * <p>Hmac hmac = new Hmac(HmacAlgorithm.HMAC_SHA256, secret);</p>
+ * <p>String signature = hmac.hashToHex(token);</p>
+ * <p>boolean valid = hmac.verifyHex(token, signature);</p>
+ * <p>本类是线程安全的</p>
+ */
+public class Hmac {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final HmacAlgorithm algorithm;
+    private final SecretKeySpec key;
+    private final Mac prototype;
+    private final boolean cloneable;
+    private final ThreadLocal<Mac> local = new ThreadLocal<>();
+
+    /**
+     * @param algorithm 算法
+     * @param key 密钥，会被复制，之后修改原数组不影响本对象
+     * @throws IllegalArgumentException 当密钥为空或被算法拒绝时抛出
+     */
+    public Hmac(@NotNull HmacAlgorithm algorithm, @NotNull byte[] key) throws IllegalArgumentException {
+        Objects.requireNonNull(algorithm);
+        Objects.requireNonNull(key);
+        if (key.length == 0) {
+            throw new IllegalArgumentException("Empty key.");
+        }
+        this.algorithm = algorithm;
+        this.key = new SecretKeySpec(key, algorithm.name);
+        this.prototype = newMac();
+        boolean cloneable;
+        try {
+            prototype.clone();
+            cloneable = true;
+        } catch (CloneNotSupportedException e) {
+            cloneable = false;
+        }
+        this.cloneable = cloneable;
+    }
+
+    /**
+     * 获取本对象的算法
+     *
+     * @return 算法
+     */
+    public HmacAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * 计算一个byte数组的HMAC
+     *
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @return HMAC
+     * @throws IndexOutOfBoundsException 当下标越界时抛出
+     */
+    public byte[] hash(@NotNull byte[] src, int off, int len) throws IndexOutOfBoundsException {
+        Objects.requireNonNull(src);
+        if (off < 0 || len < 0 || len > src.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        Mac mac = acquire();
+        try {
+            mac.update(src, off, len);
+            return mac.doFinal();
+        } finally {
+            release(mac);
+        }
+    }
+
+    /**
+     * 计算一个byte数组的HMAC
+     *
+     * @param src 源数据
+     * @return HMAC
+     */
+    public byte[] hash(@NotNull byte[] src) {
+        return hash(src, 0, src.length);
+    }
+
+    /**
+     * 计算缓冲区剩余数据的HMAC，完成后缓冲区的位置会移动到末尾
+     *
+     * @param src 源数据，可以是直接缓冲区
+     * @return HMAC
+     */
+    public byte[] hash(@NotNull ByteBuffer src) {
+        Objects.requireNonNull(src);
+        Mac mac = acquire();
+        try {
+            mac.update(src);
+            return mac.doFinal();
+        } finally {
+            release(mac);
+        }
+    }
+
+    /**
+     * 计算输入流剩余的全部数据的HMAC
+     *
+     * @param src 输入流
+     * @param close 在读取完毕后是否自动关闭流
+     * @return HMAC
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public byte[] hash(@NotNull InputStream src, boolean close) throws IOException {
+        Objects.requireNonNull(src);
+        Mac mac = acquire();
+        BufferPool pool = IOUtils.getBufferPool();
+        byte[] bytes = pool.acquire(BUFFER_SIZE);
+        try {
+            int len;
+            while ((len = src.read(bytes)) != -1) {
+                mac.update(bytes, 0, len);
+            }
+            return mac.doFinal();
+        } finally {
+            pool.release(bytes);
+            release(mac);
+            if (close) {
+                IOUtils.closeQuietly(src);
+            }
+        }
+    }
+
+    /**
+     * 计算输入流剩余的全部数据的HMAC，并将异常交由异常处理器处理
+     *
+     * @param src 输入流
+     * @param close 在读取完毕后是否自动关闭流
+     * @param exceptionHandler 异常处理器，可为空
+     * @return HMAC，出现异常时返回null
+     */
+    public byte[] hash(@NotNull InputStream src, boolean close, @Nullable IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            return hash(src, close);
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 计算一个byte数组的HMAC，并将其转换为十六进制字符串
+     *
+     * @param src 源数据
+     * @return 十六进制字符串
+     */
+    public String hashToHex(@NotNull byte[] src) {
+        return HexUtils.hexToString(hash(src));
+    }
+
+    /**
+     * 计算缓冲区剩余数据的HMAC，并将其转换为十六进制字符串
+     *
+     * @param src 源数据
+     * @return 十六进制字符串
+     */
+    public String hashToHex(@NotNull ByteBuffer src) {
+        return HexUtils.hexToString(hash(src));
+    }
+
+    /**
+     * 计算输入流剩余的全部数据的HMAC，并将其转换为十六进制字符串
+     *
+     * @param src 输入流
+     * @param close 在读取完毕后是否自动关闭流
+     * @return 十六进制字符串
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public String hashToHex(@NotNull InputStream src, boolean close) throws IOException {
+        return HexUtils.hexToString(hash(src, close));
+    }
+
+    /**
+     * 计算一个byte数组的HMAC，并将其转换为Base64字符串
+     *
+     * @param src 源数据
+     * @return Base64字符串
+     */
+    public String hashToBase64(@NotNull byte[] src) {
+        return Base64.getEncoder().encodeToString(hash(src));
+    }
+
+    /**
+     * 计算缓冲区剩余数据的HMAC，并将其转换为Base64字符串
+     *
+     * @param src 源数据
+     * @return Base64字符串
+     */
+    public String hashToBase64(@NotNull ByteBuffer src) {
+        return Base64.getEncoder().encodeToString(hash(src));
+    }
+
+    /**
+     * 计算输入流剩余的全部数据的HMAC，并将其转换为Base64字符串
+     *
+     * @param src 输入流
+     * @param close 在读取完毕后是否自动关闭流
+     * @return Base64字符串
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public String hashToBase64(@NotNull InputStream src, boolean close) throws IOException {
+        return Base64.getEncoder().encodeToString(hash(src, close));
+    }
+
+    /**
+     * 验证数据的HMAC，比较所用的时间与两者在哪个位置不同无关
+     *
+     * @param src 源数据
+     * @param expected 期望的HMAC
+     * @return 若HMAC一致，返回true
+     */
+    public boolean verify(@NotNull byte[] src, @NotNull byte[] expected) {
+        Objects.requireNonNull(expected);
+        return MessageDigest.isEqual(hash(src), expected);
+    }
+
+    /**
+     * 验证数据的HMAC，比较所用的时间与两者在哪个位置不同无关
+     *
+     * @param src 源数据
+     * @param expectedHex 期望的HMAC的十六进制字符串，不区分大小写
+     * @return 若HMAC一致，返回true
+     */
+    public boolean verifyHex(@NotNull byte[] src, @NotNull CharSequence expectedHex) {
+        Objects.requireNonNull(expectedHex);
+        String actual = hashToHex(src);
+        if (actual.length() != expectedHex.length()) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < actual.length(); i++) {
+            char c = expectedHex.charAt(i);
+            // 只把大写字母A-F转为小写，不使用分支
+            int upper = ((c - 'A') | ('F' - c)) >>> 31 ^ 1;
+            diff |= actual.charAt(i) ^ (c | upper << 5);
+        }
+        return diff == 0;
+    }
+
+    /**
+     * 验证数据的HMAC，比较所用的时间与两者在哪个位置不同无关
+     *
+     * @param src 源数据
+     * @param expectedBase64 期望的HMAC的Base64字符串
+     * @return 若HMAC一致，返回true，Base64格式错误时返回false
+     */
+    public boolean verifyBase64(@NotNull byte[] src, @NotNull String expectedBase64) {
+        Objects.requireNonNull(expectedBase64);
+        byte[] expected;
+        try {
+            expected = Base64.getDecoder().decode(expectedBase64);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(hash(src), expected);
+    }
+
+    /**
+     * 取出当前线程的Mac，取出期间其它调用会得到新的实例，因此在同一线程中嵌套使用也是安全的
+     */
+    private Mac acquire() {
+        Mac mac = local.get();
+        if (mac == null) {
+            return copy();
+        }
+        local.set(null);
+        return mac;
+    }
+
+    private void release(Mac mac) {
+        mac.reset();
+        local.set(mac);
+    }
+
+    private Mac copy() {
+        if (cloneable) {
+            try {
+                synchronized (prototype) {
+                    return (Mac) prototype.clone();
+                }
+            } catch (CloneNotSupportedException e) {
+                throw new ShouldNotOccurException(e);
+            }
+        }
+        return newMac();
+    }
+
+    private Mac newMac() {
+        Mac mac;
+        try {
+            mac = Mac.getInstance(algorithm.name);
+        } catch (NoSuchAlgorithmException e) {
+            throw new ShouldNotOccurException(e);
+        }
+        try {
+            mac.init(key);
+        } catch (InvalidKeyException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return mac;
+    }
+}
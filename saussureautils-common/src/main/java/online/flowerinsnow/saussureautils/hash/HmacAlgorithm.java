@@ -0,0 +1,29 @@
+package online.flowerinsnow.saussureautils.hash;
+
+/**
+ * 已知支持的HMAC算法
+ */
+public enum HmacAlgorithm {
+    HMAC_MD5("HmacMD5", 32),
+    HMAC_SHA1("HmacSHA1", 40),
+    HMAC_SHA224("HmacSHA224", 56),
+    HMAC_SHA256("HmacSHA256", 64),
+    HMAC_SHA384("HmacSHA384", 96),
+    HMAC_SHA512("HmacSHA512", 128);
+    public final String name;
+    public final int size;
+
+    HmacAlgorithm(String name, int size) {
+        this.name = name;
+        this.size = size;
+    }
+
+    /**
+     * 获取结果的字节数，{@link #size}为十六进制字符串的长度
+     *
+     * @return 结果的字节数
+     */
+    public int digestLength() {
+        return size >>> 1;
+    }
+}
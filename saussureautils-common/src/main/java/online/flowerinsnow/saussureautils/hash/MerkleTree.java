@@ -0,0 +1,392 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import online.flowerinsnow.saussureautils.lang.HexUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>分块并行哈希的结果，即一棵Merkle树</p>
+ * <p>格式如下，H为所选的哈希算法：</p>
+ * <p>&emsp;&emsp;1. 将文件按固定的块大小切分，最后一块可以不满，空文件视为一个空块</p>
+ * <p>&emsp;&emsp;2. 每块的叶子摘要为 H(0x00 || 块数据)</p>
+ * <p>&emsp;&emsp;3. 每层从左到右两两合并为 H(0x01 || 左 || 右)，落单的最后一个节点原样进入上一层</p>
+ * <p>&emsp;&emsp;4. 只剩一个节点时即为根</p>
+ * <p>由于叶子和内部节点带有前缀，根与对整个文件直接哈希的结果一定不同，两者不能混用</p>
+ * <p>根同时依赖块大小，校验时需要使用相同的块大小</p>
+ */
+public final class MerkleTree {
+    /**
+     * 默认块大小，4MB
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+
+    private final HashAlgorithm algorithm;
+    private final int chunkSize;
+    private final long length;
+    private final byte[][] chunks;
+    private final byte[] root;
+
+    private MerkleTree(HashAlgorithm algorithm, int chunkSize, long length, byte[][] chunks) {
+        this.algorithm = algorithm;
+        this.chunkSize = chunkSize;
+        this.length = length;
+        this.chunks = chunks;
+        this.root = root(algorithm, chunks);
+    }
+
+    /**
+     * 在指定的线程池中并行计算文件的Merkle树
+     *
+     * @param algorithm 算法
+     * @param src 文件
+     * @param chunkSize 块大小
+     * @param pool 线程池
+     * @return Merkle树
+     * @throws IllegalArgumentException 当块大小不是正数时抛出
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static @NotNull MerkleTree hash(@NotNull HashAlgorithm algorithm, @NotNull Path src, int chunkSize, @NotNull ForkJoinPool pool) throws IllegalArgumentException, IOException {
+        Objects.requireNonNull(algorithm);
+        Objects.requireNonNull(src);
+        Objects.requireNonNull(pool);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        try (FileChannel channel = FileChannel.open(src, StandardOpenOption.READ)) {
+            long length = channel.size();
+            int count = chunkCount(length, chunkSize);
+            byte[][] chunks = new byte[count][];
+            try {
+                pool.invoke(new LeafTask(channel, algorithm, chunkSize, length, chunks, 0, count));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return new MerkleTree(algorithm, chunkSize, length, chunks);
+        }
+    }
+
+    /**
+     * 在公共线程池中并行计算文件的Merkle树
+     *
+     * @param algorithm 算法
+     * @param src 文件
+     * @param chunkSize 块大小
+     * @return Merkle树
+     * @throws IllegalArgumentException 当块大小不是正数时抛出
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static @NotNull MerkleTree hash(@NotNull HashAlgorithm algorithm, @NotNull Path src, int chunkSize) throws IllegalArgumentException, IOException {
+        return hash(algorithm, src, chunkSize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 以默认块大小，在公共线程池中并行计算文件的Merkle树
+     *
+     * @param algorithm 算法
+     * @param src 文件
+     * @return Merkle树
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static @NotNull MerkleTree hash(@NotNull HashAlgorithm algorithm, @NotNull Path src) throws IOException {
+        return hash(algorithm, src, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 从之前保存的每块摘要重建Merkle树，用于之后的部分校验
+     *
+     * @param algorithm 算法
+     * @param chunkSize 块大小
+     * @param length 文件长度
+     * @param chunks 每块的叶子摘要
+     * @return Merkle树
+     * @throws IllegalArgumentException 当块数与文件长度不符，或摘要长度与算法不符时抛出
+     */
+    public static @NotNull MerkleTree of(@NotNull HashAlgorithm algorithm, int chunkSize, long length, @NotNull List<byte[]> chunks) throws IllegalArgumentException {
+        Objects.requireNonNull(algorithm);
+        Objects.requireNonNull(chunks);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        if (length < 0 || chunks.size() != chunkCount(length, chunkSize)) {
+            throw new IllegalArgumentException("Chunk count does not match length.");
+        }
+        byte[][] array = new byte[chunks.size()][];
+        for (int i = 0; i < array.length; i++) {
+            byte[] chunk = chunks.get(i);
+            if (chunk.length != algorithm.digestLength()) {
+                throw new IllegalArgumentException("Wrong digest length at chunk " + i);
+            }
+            array[i] = chunk.clone();
+        }
+        return new MerkleTree(algorithm, chunkSize, length, array);
+    }
+
+    /**
+     * 重新计算文件中的某一块，并与本树中的摘要比较
+     *
+     * @param src 文件
+     * @param index 块下标
+     * @return 若该块未改变，返回true
+     * @throws IndexOutOfBoundsException 当下标越界时抛出
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public boolean verifyChunk(@NotNull Path src, int index) throws IndexOutOfBoundsException, IOException {
+        Objects.requireNonNull(src);
+        if (index < 0 || index >= chunks.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        try (FileChannel channel = FileChannel.open(src, StandardOpenOption.READ)) {
+            if (channel.size() != length) {
+                return false;
+            }
+            return MessageDigest.isEqual(chunks[index], leaf(channel, algorithm, chunkSize, length, index));
+        }
+    }
+
+    /**
+     * 并行重新计算整个文件，找出所有与本树不同的块
+     *
+     * @param src 文件
+     * @param pool 线程池
+     * @return 不同的块下标，若文件长度已改变则包含所有块
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public @NotNull List<Integer> mismatchedChunks(@NotNull Path src, @NotNull ForkJoinPool pool) throws IOException {
+        MerkleTree other = hash(algorithm, src, chunkSize, pool);
+        List<Integer> result = new ArrayList<>();
+        if (other.length != length) {
+            for (int i = 0; i < chunks.length; i++) {
+                result.add(i);
+            }
+            return result;
+        }
+        for (int i = 0; i < chunks.length; i++) {
+            if (!MessageDigest.isEqual(chunks[i], other.chunks[i])) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取计算本树所用的算法
+     *
+     * @return 算法
+     */
+    public HashAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * 获取块大小
+     *
+     * @return 块大小，单位为字节
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 获取文件长度
+     *
+     * @return 文件长度，单位为字节
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * 获取块数
+     *
+     * @return 块数，空文件也有一块
+     */
+    public int chunkCount() {
+        return chunks.length;
+    }
+
+    /**
+     * 获取某一块的叶子摘要
+     *
+     * @param index 块下标
+     * @return 叶子摘要
+     */
+    public byte[] chunk(int index) {
+        return chunks[index].clone();
+    }
+
+    /**
+     * 获取所有块的叶子摘要，可以保存起来，之后通过{@link #of(HashAlgorithm, int, long, List)}重建
+     *
+     * @return 所有块的叶子摘要
+     */
+    public List<byte[]> chunks() {
+        List<byte[]> list = new ArrayList<>(chunks.length);
+        for (byte[] chunk : chunks) {
+            list.add(chunk.clone());
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 获取根摘要
+     *
+     * @return 根摘要
+     */
+    public byte[] root() {
+        return root.clone();
+    }
+
+    /**
+     * 获取根摘要的十六进制字符串
+     *
+     * @return 十六进制字符串
+     */
+    public String rootToHex() {
+        return HexUtils.hexToString(root);
+    }
+
+    /**
+     * 获取根摘要的Base64字符串
+     *
+     * @return Base64字符串
+     */
+    public String rootToBase64() {
+        return Base64.getEncoder().encodeToString(root);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MerkleTree that = (MerkleTree) o;
+        return chunkSize == that.chunkSize && length == that.length && algorithm == that.algorithm && MessageDigest.isEqual(root, that.root);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 17;
+        result = 31 * result + algorithm.hashCode();
+        result = 31 * result + chunkSize;
+        result = 31 * result + Long.hashCode(length);
+        result = 31 * result + Arrays.hashCode(root);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "MerkleTree{" +
+                "algorithm=" + algorithm +
+                ", chunkSize=" + chunkSize +
+                ", length=" + length +
+                ", chunkCount=" + chunks.length +
+                ", root=" + rootToHex() +
+                '}';
+    }
+
+    private static int chunkCount(long length, int chunkSize) {
+        long count = length == 0 ? 1 : (length + chunkSize - 1) / chunkSize;
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many chunks, use a larger chunk size.");
+        }
+        return (int) count;
+    }
+
+    private static byte[] leaf(FileChannel channel, HashAlgorithm algorithm, int chunkSize, long length, int index) throws IOException {
+        long position = (long) index * chunkSize;
+        long size = Math.min(chunkSize, length - position);
+        MessageDigest md = MessageDigestCache.acquire(algorithm);
+        try {
+            md.update(LEAF_PREFIX);
+            if (FileDigests.update(channel, position, size, md) != size) {
+                throw new IOException("File changed while hashing.");
+            }
+            return md.digest();
+        } finally {
+            MessageDigestCache.release(algorithm, md);
+        }
+    }
+
+    private static byte[] root(HashAlgorithm algorithm, byte[][] chunks) {
+        MessageDigest md = MessageDigestCache.acquire(algorithm);
+        try {
+            byte[][] level = chunks;
+            while (level.length > 1) {
+                byte[][] next = new byte[(level.length + 1) / 2][];
+                for (int i = 0; i < next.length; i++) {
+                    int left = i * 2;
+                    if (left + 1 < level.length) {
+                        md.update(NODE_PREFIX);
+                        md.update(level[left]);
+                        md.update(level[left + 1]);
+                        next[i] = md.digest();
+                    } else {
+                        next[i] = level[left];
+                    }
+                }
+                level = next;
+            }
+            return level[0].clone();
+        } finally {
+            MessageDigestCache.release(algorithm, md);
+        }
+    }
+
+    /**
+     * 将块区间二分，直到单个块再计算叶子摘要
+     */
+    private static final class LeafTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final HashAlgorithm algorithm;
+        private final int chunkSize;
+        private final long length;
+        private final byte[][] chunks;
+        private final int from;
+        private final int to;
+
+        private LeafTask(FileChannel channel, HashAlgorithm algorithm, int chunkSize, long length, byte[][] chunks, int from, int to) {
+            this.channel = channel;
+            this.algorithm = algorithm;
+            this.chunkSize = chunkSize;
+            this.length = length;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    chunks[from] = leaf(channel, algorithm, chunkSize, length, from);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new LeafTask(channel, algorithm, chunkSize, length, chunks, from, middle),
+                    new LeafTask(channel, algorithm, chunkSize, length, chunks, middle, to)
+            );
+        }
+    }
+}
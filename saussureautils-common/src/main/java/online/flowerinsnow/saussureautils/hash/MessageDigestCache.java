@@ -0,0 +1,110 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import online.flowerinsnow.saussureautils.exception.ShouldNotOccurException;
+import org.jetbrains.annotations.NotNull;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * <p>线程本地的{@link MessageDigest}缓存，避免每次哈希都查找提供者并创建新对象</p>
+ * <p>用法：</p>
+ * <p>MessageDigest md = MessageDigestCache.acquire(HashAlgorithm.SHA256);</p>
+ * <p>try &#123;</p>
+ * <p>&emsp;&emsp;md.update(bytes);</p>
+ * <p>&emsp;&emsp;return md.digest();</p>
+ * <p>&#125; finally &#123;</p>
+ * <p>&emsp;&emsp;MessageDigestCache.release(HashAlgorithm.SHA256, md);</p>
+ * <p>&#125;</p>
+ * <p>借出期间对象不在缓存中，所以同一线程嵌套借出同一算法时会得到另一个对象，不会互相干扰</p>
+ * <p>只缓存JDK的类型，不会导致插件类加载器泄漏</p>
+ */
+public final class MessageDigestCache {
+    private static final HashAlgorithm[] ALGORITHMS = HashAlgorithm.values();
+    private static final ThreadLocal<MessageDigest[]> KNOWN = ThreadLocal.withInitial(() -> new MessageDigest[ALGORITHMS.length]);
+    private static final ThreadLocal<HashMap<String, MessageDigest>> OTHERS = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * 封锁构造方法，不允许创建对象
+     */
+    private MessageDigestCache() {
+    }
+
+    /**
+     * 从当前线程的缓存中借出一个已重置的摘要对象，缓存为空时创建新对象
+     *
+     * @param algorithm 算法
+     * @return 摘要对象，用完后应通过{@link #release(HashAlgorithm, MessageDigest)}归还
+     */
+    public static @NotNull MessageDigest acquire(@NotNull HashAlgorithm algorithm) {
+        Objects.requireNonNull(algorithm);
+        MessageDigest[] slots = KNOWN.get();
+        int index = algorithm.ordinal();
+        MessageDigest md = slots[index];
+        if (md != null) {
+            slots[index] = null;
+            return md;
+        }
+        try {
+            return MessageDigest.getInstance(algorithm.name);
+        } catch (NoSuchAlgorithmException e) {
+            throw new ShouldNotOccurException(e);
+        }
+    }
+
+    /**
+     * 从当前线程的缓存中借出一个已重置的摘要对象，缓存为空时创建新对象
+     *
+     * @param algorithm 算法
+     * @return 摘要对象，用完后应通过{@link #release(String, MessageDigest)}归还
+     * @throws IllegalArgumentException 当算法不存在或不支持时抛出
+     */
+    public static @NotNull MessageDigest acquire(@NotNull String algorithm) throws IllegalArgumentException {
+        Objects.requireNonNull(algorithm);
+        MessageDigest md = OTHERS.get().remove(algorithm);
+        if (md != null) {
+            return md;
+        }
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * 重置摘要对象并归还到当前线程的缓存中
+     *
+     * @param algorithm 借出时使用的算法
+     * @param md 摘要对象
+     */
+    public static void release(@NotNull HashAlgorithm algorithm, @NotNull MessageDigest md) {
+        Objects.requireNonNull(algorithm);
+        Objects.requireNonNull(md);
+        md.reset();
+        KNOWN.get()[algorithm.ordinal()] = md;
+    }
+
+    /**
+     * 重置摘要对象并归还到当前线程的缓存中
+     *
+     * @param algorithm 借出时使用的算法
+     * @param md 摘要对象
+     */
+    public static void release(@NotNull String algorithm, @NotNull MessageDigest md) {
+        Objects.requireNonNull(algorithm);
+        Objects.requireNonNull(md);
+        md.reset();
+        OTHERS.get().put(algorithm, md);
+    }
+
+    /**
+     * 清空当前线程缓存的所有摘要对象，例如在线程池线程归还前或插件卸载时调用
+     */
+    public static void clear() {
+        KNOWN.remove();
+        OTHERS.remove();
+    }
+}
@@ -0,0 +1,150 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>MurmurHash3 x64 128位的纯Java实现，结果为h1和h2依次以小端序输出，与Guava的Hashing.murmur3_128()一致</p>
+ */
+public final class Murmur3Hasher extends FastHasher {
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+
+    private final long seed;
+    private final byte[] buffer = new byte[16];
+    private int buffered;
+    private long total;
+    private long h1;
+    private long h2;
+
+    /**
+     * 使用种子0
+     */
+    public Murmur3Hasher() {
+        this(0);
+    }
+
+    /**
+     * @param seed 种子，按无符号32位处理
+     */
+    public Murmur3Hasher(int seed) {
+        this.seed = seed & 0xFFFFFFFFL;
+        reset();
+    }
+
+    @Override
+    public FastHashAlgorithm algorithm() {
+        return FastHashAlgorithm.MURMUR3_128;
+    }
+
+    @Override
+    public Murmur3Hasher update(byte[] src, int off, int len) {
+        checkBounds(src, off, len);
+        total += len;
+        if (buffered + len < 16) {
+            System.arraycopy(src, off, buffer, buffered, len);
+            buffered += len;
+            return this;
+        }
+        int end = off + len;
+        if (buffered > 0) {
+            int fill = 16 - buffered;
+            System.arraycopy(src, off, buffer, buffered, fill);
+            block(getLongLE(buffer, 0), getLongLE(buffer, 8));
+            off += fill;
+            buffered = 0;
+        }
+        ByteBuffer view = ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN);
+        for (; off + 16 <= end; off += 16) {
+            block(view.getLong(off), view.getLong(off + 8));
+        }
+        buffered = end - off;
+        System.arraycopy(src, off, buffer, 0, buffered);
+        return this;
+    }
+
+    @Override
+    public byte[] digest() {
+        finish();
+        byte[] result = new byte[16];
+        putLongLE(result, 0, h1);
+        putLongLE(result, 8, h2);
+        reset();
+        return result;
+    }
+
+    /**
+     * 完成哈希，返回h1，并重置本哈希器
+     *
+     * @return 128位结果中的h1
+     */
+    @Override
+    public long digestToLong() {
+        finish();
+        long result = h1;
+        reset();
+        return result;
+    }
+
+    @Override
+    public Murmur3Hasher reset() {
+        h1 = seed;
+        h2 = seed;
+        buffered = 0;
+        total = 0;
+        return this;
+    }
+
+    private void block(long k1, long k2) {
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52DCE729;
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495AB5;
+    }
+
+    private void finish() {
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = buffered - 1; i >= 8; i--) {
+            k2 = k2 << 8 | (buffer[i] & 0xFFL);
+        }
+        for (int i = Math.min(buffered, 8) - 1; i >= 0; i--) {
+            k1 = k1 << 8 | (buffer[i] & 0xFFL);
+        }
+        h1 ^= mixK1(k1);
+        h2 ^= mixK2(k2);
+        h1 ^= total;
+        h2 ^= total;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,143 @@
+package online.flowerinsnow.saussureautils.hash;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>xxHash64的纯Java实现，结果以大端序输出，与官方XXH64_canonicalFromHash一致</p>
+ */
+public final class XxHash64Hasher extends FastHasher {
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    private final long seed;
+    private final byte[] buffer = new byte[32];
+    private final ByteBuffer bufferView = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+    private int buffered;
+    private long total;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+
+    /**
+     * 使用种子0
+     */
+    public XxHash64Hasher() {
+        this(0L);
+    }
+
+    /**
+     * @param seed 种子
+     */
+    public XxHash64Hasher(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    @Override
+    public FastHashAlgorithm algorithm() {
+        return FastHashAlgorithm.XXHASH64;
+    }
+
+    @Override
+    public XxHash64Hasher update(byte[] src, int off, int len) {
+        checkBounds(src, off, len);
+        total += len;
+        if (buffered + len < 32) {
+            System.arraycopy(src, off, buffer, buffered, len);
+            buffered += len;
+            return this;
+        }
+        int end = off + len;
+        if (buffered > 0) {
+            int fill = 32 - buffered;
+            System.arraycopy(src, off, buffer, buffered, fill);
+            stripe(bufferView, 0);
+            off += fill;
+            buffered = 0;
+        }
+        ByteBuffer view = ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN);
+        for (; off + 32 <= end; off += 32) {
+            stripe(view, off);
+        }
+        buffered = end - off;
+        System.arraycopy(src, off, buffer, 0, buffered);
+        return this;
+    }
+
+    @Override
+    public byte[] digest() {
+        byte[] result = new byte[8];
+        putLongBE(result, 0, digestToLong());
+        return result;
+    }
+
+    @Override
+    public long digestToLong() {
+        long h;
+        if (total >= 32) {
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = seed + P5;
+        }
+        h += total;
+        int i = 0;
+        for (; i + 8 <= buffered; i += 8) {
+            h ^= round(0, getLongLE(buffer, i));
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+        }
+        if (i + 4 <= buffered) {
+            h ^= getIntLE(buffer, i) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            i += 4;
+        }
+        for (; i < buffered; i++) {
+            h ^= (buffer[i] & 0xFFL) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+        }
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        reset();
+        return h;
+    }
+
+    @Override
+    public XxHash64Hasher reset() {
+        v1 = seed + P1 + P2;
+        v2 = seed + P2;
+        v3 = seed;
+        v4 = seed - P1;
+        buffered = 0;
+        total = 0;
+        return this;
+    }
+
+    private void stripe(ByteBuffer b, int i) {
+        v1 = round(v1, b.getLong(i));
+        v2 = round(v2, b.getLong(i + 8));
+        v3 = round(v3, b.getLong(i + 16));
+        v4 = round(v4, b.getLong(i + 24));
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    private static long mergeRound(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * P1 + P4;
+    }
+}
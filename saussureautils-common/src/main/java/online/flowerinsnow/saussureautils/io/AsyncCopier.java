@@ -0,0 +1,394 @@
+package online.flowerinsnow.saussureautils.io;
+
+import online.flowerinsnow.saussureautils.object.IExceptionHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>异步复制，在指定的线程池中执行{@link IOUtils}的复制，调用线程（例如服务器主线程）不会被阻塞</p>
+ * <p>返回的{@link CompletableFuture}在复制完成时得到复制的字节数，调用其cancel方法可以取消复制，
+ * 复制会在下一块数据写入后停止，已写入目标的数据不会被删除</p>
+ * <p>可以指定进度监听器，复制过程中每隔指定的时间报告一次进度，复制成功后再报告一次</p>
+ * <p>选项与{@link IOUtils}中的copy相同，例如：</p>
+ * <p>AsyncCopier copier = new AsyncCopier(executor, progress -&gt; logger.info(progress.fraction()), 500);</p>
+ * <p>copier.copy(source, target, new PrintStackTraceExceptionHandler&lt;&gt;()).thenAccept(bytes -&gt; ...);</p>
+ */
+public class AsyncCopier {
+    /**
+     * 文件之间通过FileChannel.transferTo复制时每次调用的最大字节数，决定了报告进度和响应取消的粒度
+     */
+    private static final long TRANSFER_CHUNK = 8 * 1024 * 1024;
+
+    private final Executor executor;
+    private final @Nullable CopyProgressListener listener;
+    private final long intervalNanos;
+
+    /**
+     * @param executor 执行复制的线程池
+     * @param listener 进度监听器，可为空
+     * @param intervalMillis 报告进度的最小间隔毫秒数，为0时每写入一块数据报告一次
+     * @throws IllegalArgumentException 当间隔为负数时抛出
+     */
+    public AsyncCopier(@NotNull Executor executor, @Nullable CopyProgressListener listener, long intervalMillis) throws IllegalArgumentException {
+        Objects.requireNonNull(executor);
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("Negative interval: " + intervalMillis);
+        }
+        this.executor = executor;
+        this.listener = listener;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    /**
+     * 不报告进度
+     *
+     * @param executor 执行复制的线程池
+     */
+    public AsyncCopier(@NotNull Executor executor) {
+        this(executor, null, 0);
+    }
+
+    /**
+     * 使用公共线程池，不报告进度
+     */
+    public AsyncCopier() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 异步将输入流的数据全部写入输出流
+     *
+     * @param in 输入流
+     * @param out 输出流
+     * @param options 选项
+     * @return 复制的字节数，出现IO异常时以该异常异常完成
+     */
+    public @NotNull CompletableFuture<Long> copy(@NotNull InputStream in, @NotNull OutputStream out, @NotNull CopyOption... options) {
+        return copy(in, out, null, true, options);
+    }
+
+    /**
+     * 异步将输入流的数据全部写入输出流，并将异常交由异常处理器处理
+     *
+     * @param in 输入流
+     * @param out 输出流
+     * @param exceptionHandler 异常处理器，可为空
+     * @param options 选项
+     * @return 复制的字节数，出现IO异常时为null
+     */
+    public @NotNull CompletableFuture<Long> copy(@NotNull InputStream in, @NotNull OutputStream out, @Nullable IExceptionHandler<IOException> exceptionHandler, @NotNull CopyOption... options) {
+        return copy(in, out, exceptionHandler, false, options);
+    }
+
+    /**
+     * 异步将输入文件的数据全部写入输出流
+     *
+     * @param in 输入文件
+     * @param out 输出流
+     * @param options 选项
+     * @return 复制的字节数，出现IO异常时以该异常异常完成
+     */
+    public @NotNull CompletableFuture<Long> copy(@NotNull Path in, @NotNull OutputStream out, @NotNull CopyOption... options) {
+        return copy(in, out, null, true, options);
+    }
+
+    /**
+     * 异步将输入文件的数据全部写入输出流，并将异常交由异常处理器处理
+     *
+     * @param in 输入文件
+     * @param out 输出流
+     * @param exceptionHandler 异常处理器，可为空
+     * @param options 选项
+     * @return 复制的字节数，出现IO异常时为null
+     */
+    public @NotNull CompletableFuture<Long> copy(@NotNull Path in, @NotNull OutputStream out, @Nullable IExceptionHandler<IOException> exceptionHandler, @NotNull CopyOption... options) {
+        return copy(in, out, exceptionHandler, false, options);
+    }
+
+    /**
+     * 异步将输入流的数据全部写入输出文件
+     * 若目标文件不存在则创建，若目标文件存在则覆盖
+     *
+     * @param in 输入流
+     * @param out 输出文件
+     * @param options 选项
+     * @return 复制的字节数，出现IO异常时以该异常异常完成
+     */
+    public @NotNull CompletableFuture<Long> copy(@NotNull InputStream in, @NotNull Path out, @NotNull CopyOption... options) {
+        return copy(in, out, null, true, options);
+    }
+
+    /**
+     * 异步将输入流的数据全部写入输出文件，并将异常交由异常处理器处理
+     * 若目标文件不存在则创建，若目标文件存在则覆盖
+     *
+     * @param in 输入流
+     * @param out 输出文件
+     * @param exceptionHandler 异常处理器，可为空
+     * @param options 选项
+     * @return 复制的字节数，出现IO异常时为null
+     */
+    public @NotNull CompletableFuture<Long> copy(@NotNull InputStream in, @NotNull Path out, @Nullable IExceptionHandler<IOException> exceptionHandler, @NotNull CopyOption... options) {
+        return copy(in, out, exceptionHandler, false, options);
+    }
+
+    /**
+     * <p>异步将输入文件的数据全部写入输出文件</p>
+     * <p>若目标文件不存在则创建，若目标文件存在则覆盖</p>
+     * <p>没有指定{@link CopyOption#NO_ZERO_COPY}时分块调用FileChannel.transferTo，每块之间报告进度和检查是否取消</p>
+     * <p>支持{@link CopyOption#SKIP_UNCHANGED}和{@link CopyOption#PRESERVE_ATTRIBUTES}，跳过时复制的字节数为0</p>
+     * <p>指定{@link CopyOption#ATOMIC}时写入临时文件再原子地替换目标文件</p>
+     *
+     * @param in 输入文件
+     * @param out 输出文件
+     * @param options 选项
+     * @return 复制的字节数，出现IO异常时以该异常异常完成
+     */
+    public @NotNull CompletableFuture<Long> copy(@NotNull Path in, @NotNull Path out, @NotNull CopyOption... options) {
+        return copy(in, out, null, true, options);
+    }
+
+    /**
+     * 异步将输入文件的数据全部写入输出文件，并将异常交由异常处理器处理
+     * 若目标文件不存在则创建，若目标文件存在则覆盖
+     *
+     * @param in 输入文件
+     * @param out 输出文件
+     * @param exceptionHandler 异常处理器，可为空
+     * @param options 选项
+     * @return 复制的字节数，出现IO异常时为null
+     */
+    public @NotNull CompletableFuture<Long> copy(@NotNull Path in, @NotNull Path out, @Nullable IExceptionHandler<IOException> exceptionHandler, @NotNull CopyOption... options) {
+        return copy(in, out, exceptionHandler, false, options);
+    }
+
+    private CompletableFuture<Long> copy(InputStream in, OutputStream out, IExceptionHandler<IOException> exceptionHandler, boolean rethrow, CopyOption[] options) {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(out);
+        Objects.requireNonNull(options);
+        return submit(progress -> {
+            IOUtils.copy(in, new ProgressOutputStream(out, progress), options);
+        }, exceptionHandler, rethrow);
+    }
+
+    private CompletableFuture<Long> copy(Path in, OutputStream out, IExceptionHandler<IOException> exceptionHandler, boolean rethrow, CopyOption[] options) {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(out);
+        Objects.requireNonNull(options);
+        return submit(progress -> {
+            // 管道等不是普通文件的源大小未知
+            progress.total = Files.isRegularFile(in) ? Files.size(in) : -1;
+            IOUtils.copy(in, new ProgressOutputStream(out, progress), options);
+        }, exceptionHandler, rethrow);
+    }
+
+    private CompletableFuture<Long> copy(InputStream in, Path out, IExceptionHandler<IOException> exceptionHandler, boolean rethrow, CopyOption[] options) {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(out);
+        Objects.requireNonNull(options);
+        return submit(progress -> {
+            FileChannel dst = null;
+            try {
+                if (Arrays.asList(options).contains(CopyOption.ATOMIC)) {
+                    CopyOption[] streamOptions = AtomicFileWriter.streamOptions(options);
+                    IOUtils.ATOMIC_WRITER.commit(out, channel -> IOUtils.copy(in, new ProgressOutputStream(Channels.newOutputStream(channel), progress), streamOptions));
+                } else {
+                    IOUtils.createFileIfNotExists(out);
+                    dst = FileChannel.open(out, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                    IOUtils.copy(in, new ProgressOutputStream(Channels.newOutputStream(dst), progress), options);
+                }
+            } finally {
+                IOUtils.closeQuietly(dst);
+                if (Arrays.asList(options).contains(CopyOption.CLOSE_INPUT)) {
+                    IOUtils.closeQuietly(in);
+                }
+            }
+        }, exceptionHandler, rethrow);
+    }
+
+    private CompletableFuture<Long> copy(Path in, Path out, IExceptionHandler<IOException> exceptionHandler, boolean rethrow, CopyOption[] options) {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(out);
+        Objects.requireNonNull(options);
+        List<CopyOption> list = Arrays.asList(options);
+        return submit(progress -> {
+            FileChannel src = null;
+            FileChannel dst = null;
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(in, BasicFileAttributes.class);
+                if (list.contains(CopyOption.SKIP_UNCHANGED) && IOUtils.isUnchanged(attributes, out)) {
+                    return;
+                }
+                boolean regular = attributes.isRegularFile();
+                src = FileChannel.open(in, StandardOpenOption.READ);
+                progress.total = regular ? src.size() : -1;
+                FileChannel source = src;
+                CopyOption[] streamOptions = AtomicFileWriter.streamOptions(options);
+                AtomicFileWriter.ChannelWriter writer = channel -> {
+                    if (regular && IOUtils.zeroCopy(list)) {
+                        long position = 0;
+                        long size = source.size();
+                        while (position < size) {
+                            long n = source.transferTo(position, Math.min(TRANSFER_CHUNK, size - position), channel);
+                            if (n <= 0) {
+                                break;
+                            }
+                            position += n;
+                            progress.advance(n);
+                        }
+                        source.position(position);
+                    }
+                    IOUtils.copy(Channels.newInputStream(source), new ProgressOutputStream(Channels.newOutputStream(channel), progress), streamOptions);
+                };
+                if (list.contains(CopyOption.ATOMIC)) {
+                    IOUtils.ATOMIC_WRITER.commit(out, writer);
+                } else {
+                    IOUtils.createFileIfNotExists(out);
+                    dst = FileChannel.open(out, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                    writer.write(dst);
+                    dst.close();
+                }
+                IOUtils.finishAttributes(in, out, list, attributes);
+            } finally {
+                IOUtils.closeQuietly(dst, src);
+            }
+        }, exceptionHandler, rethrow);
+    }
+
+    /**
+     * 在线程池中执行复制任务，任务通过{@link Progress#advance(long)}报告进度，取消时从中抛出{@link CancellationException}
+     */
+    private CompletableFuture<Long> submit(CopyTask task, IExceptionHandler<IOException> exceptionHandler, boolean rethrow) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        Progress progress = new Progress(future);
+        try {
+            executor.execute(() -> {
+                if (future.isCancelled()) {
+                    return;
+                }
+                try {
+                    progress.start();
+                    task.run(progress);
+                    progress.finish();
+                    future.complete(progress.transferred);
+                } catch (CancellationException e) {
+                    future.cancel(false);
+                } catch (IOException e) {
+                    if (rethrow) {
+                        future.completeExceptionally(e);
+                    } else {
+                        try {
+                            if (exceptionHandler != null) {
+                                exceptionHandler.accept(e);
+                            }
+                            future.complete(null);
+                        } catch (Throwable t) {
+                            // 异常处理器抛出异常时也要完成结果，否则调用者会永远等待
+                            t.addSuppressed(e);
+                            future.completeExceptionally(t);
+                        }
+                    }
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @FunctionalInterface
+    private interface CopyTask {
+        void run(Progress progress) throws IOException;
+    }
+
+    /**
+     * 一次复制的进度，只在执行复制的线程中访问
+     */
+    private final class Progress {
+        private final CompletableFuture<Long> future;
+        private long total = -1;
+        private long transferred;
+        private long startNanos;
+        private long lastReportNanos;
+
+        private Progress(CompletableFuture<Long> future) {
+            this.future = future;
+        }
+
+        private void start() {
+            startNanos = System.nanoTime();
+            lastReportNanos = startNanos;
+        }
+
+        /**
+         * 记录写入的字节数，到达间隔时报告进度
+         *
+         * @throws CancellationException 当复制已被取消时抛出
+         */
+        private void advance(long n) throws CancellationException {
+            transferred += n;
+            if (future.isCancelled()) {
+                throw new CancellationException();
+            }
+            if (listener != null) {
+                long now = System.nanoTime();
+                if (now - lastReportNanos >= intervalNanos) {
+                    lastReportNanos = now;
+                    listener.onProgress(new CopyProgress(transferred, total, now - startNanos, false));
+                }
+            }
+        }
+
+        private void finish() {
+            if (listener != null) {
+                listener.onProgress(new CopyProgress(transferred, total, System.nanoTime() - startNanos, true));
+            }
+        }
+    }
+
+    /**
+     * 每次写入后报告进度的输出流
+     */
+    private static final class ProgressOutputStream extends FilterOutputStream {
+        private final Progress progress;
+
+        private ProgressOutputStream(OutputStream out, Progress progress) {
+            super(out);
+            this.progress = progress;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            progress.advance(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            progress.advance(len);
+        }
+    }
+}
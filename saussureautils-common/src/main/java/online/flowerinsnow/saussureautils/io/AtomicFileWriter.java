@@ -0,0 +1,342 @@
+package online.flowerinsnow.saussureautils.io;
+
+import online.flowerinsnow.saussureautils.object.IExceptionHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>原子地写入文件，写到一半时崩溃或断电不会损坏原文件</p>
+ * <p>数据先写入同目录下的临时文件并fsync，再原子地重命名为目标文件，最后fsync所在目录使重命名持久化；
+ * 读者只会看到完整的旧文件或完整的新文件</p>
+ * <p>目标文件已存在时临时文件会沿用其POSIX权限；任意一步失败时删除临时文件，原文件不受影响</p>
+ * <p>启用组提交时，同一目录下并发写入的多个文件共用一次目录fsync：
+ * 一个线程正在fsync时到达的写入者会等待，并由下一个线程用一次fsync同时完成，繁忙时可以显著减少fsync次数</p>
+ * <p>本类是线程安全的，例如：</p>
+ * <p>new AtomicFileWriter(true).write(configPath, out -&gt; yaml.dump(config, new OutputStreamWriter(out, StandardCharsets.UTF_8)));</p>
+ */
+public class AtomicFileWriter {
+    private final boolean groupCommit;
+    private final ConcurrentHashMap<Path, DirectorySync> directories = new ConcurrentHashMap<>();
+    private final LongAdder directorySyncs = new LongAdder();
+
+    /**
+     * 不使用组提交，每次写入各自fsync目录
+     */
+    public AtomicFileWriter() {
+        this(false);
+    }
+
+    /**
+     * @param groupCommit 是否合并同一目录下并发写入的目录fsync
+     */
+    public AtomicFileWriter(boolean groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    /**
+     * 原子地将数据写入文件
+     *
+     * @param target 目标文件
+     * @param data 数据
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public void write(@NotNull Path target, byte[] data) throws IOException {
+        Objects.requireNonNull(target);
+        Objects.requireNonNull(data);
+        commit(target, channel -> {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    /**
+     * 原子地将数据写入文件，并将异常交由异常处理器处理
+     *
+     * @param target 目标文件
+     * @param data 数据
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 若本次执行没有出现异常，返回true
+     */
+    public boolean write(@NotNull Path target, byte[] data, @Nullable IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            write(target, data);
+            return true;
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 原子地将输入流的数据全部写入文件
+     *
+     * @param target 目标文件
+     * @param in 输入流
+     * @param options 选项，CLOSE_OUTPUT无效
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public void write(@NotNull Path target, @NotNull InputStream in, @NotNull CopyOption... options) throws IOException {
+        Objects.requireNonNull(target);
+        Objects.requireNonNull(in);
+        CopyOption[] filtered = streamOptions(options);
+        commit(target, channel -> IOUtils.copy(in, Channels.newOutputStream(channel), filtered));
+    }
+
+    /**
+     * 原子地将输入流的数据全部写入文件，并将异常交由异常处理器处理
+     *
+     * @param target 目标文件
+     * @param in 输入流
+     * @param exceptionHandler 异常处理器，可为空
+     * @param options 选项，CLOSE_OUTPUT无效
+     * @return 若本次执行没有出现异常，返回true
+     */
+    public boolean write(@NotNull Path target, @NotNull InputStream in, @Nullable IExceptionHandler<IOException> exceptionHandler, @NotNull CopyOption... options) {
+        try {
+            write(target, in, options);
+            return true;
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 原子地将序列化器输出的内容写入文件，序列化器不需要关闭输出流
+     *
+     * @param target 目标文件
+     * @param content 向输出流写入内容的序列化器
+     * @throws IOException 当出现IO异常或序列化器抛出IO异常时抛出
+     */
+    public void write(@NotNull Path target, @NotNull Content content) throws IOException {
+        Objects.requireNonNull(target);
+        Objects.requireNonNull(content);
+        commit(target, channel -> {
+            OutputStream out = Channels.newOutputStream(channel);
+            content.writeTo(out);
+            out.flush();
+        });
+    }
+
+    /**
+     * 原子地将序列化器输出的内容写入文件，并将异常交由异常处理器处理
+     *
+     * @param target 目标文件
+     * @param content 向输出流写入内容的序列化器
+     * @param exceptionHandler 异常处理器，可为空
+     * @return 若本次执行没有出现异常，返回true
+     */
+    public boolean write(@NotNull Path target, @NotNull Content content, @Nullable IExceptionHandler<IOException> exceptionHandler) {
+        try {
+            write(target, content);
+            return true;
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 获取已执行的目录fsync次数，启用组提交时通常少于写入的文件数
+     *
+     * @return 次数
+     */
+    public long directorySyncs() {
+        return directorySyncs.sum();
+    }
+
+    /**
+     * 写入临时文件、fsync、原子重命名并fsync目录
+     */
+    void commit(Path target, ChannelWriter writer) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        Path dir = absolute.getParent();
+        if (dir == null) {
+            throw new IOException("Cannot write to root: " + target);
+        }
+        Files.createDirectories(dir);
+        Path temp = null;
+        FileChannel channel = null;
+        try {
+            while (channel == null) {
+                temp = dir.resolve("." + absolute.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+                try {
+                    channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+                } catch (FileAlreadyExistsException ignored) {
+                }
+            }
+            writer.write(channel);
+            channel.force(true);
+            channel.close();
+            copyPermissions(absolute, temp);
+            try {
+                Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } finally {
+            IOUtils.closeQuietly(channel);
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        if (groupCommit) {
+            DirectorySync sync = directories.compute(dir, (key, value) -> {
+                DirectorySync result = value == null ? new DirectorySync(key) : value;
+                result.users++;
+                return result;
+            });
+            try {
+                sync.sync();
+            } finally {
+                // 没有线程在使用时移除，避免写过的目录越积越多
+                directories.computeIfPresent(dir, (key, value) -> --value.users == 0 ? null : value);
+            }
+        } else {
+            syncDirectory(dir);
+        }
+    }
+
+    private void syncDirectory(Path dir) throws IOException {
+        directorySyncs.increment();
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // Windows不能以这种方式打开目录，重命名在NTFS上本身就是持久的
+            return;
+        }
+        try {
+            channel.force(true);
+        } catch (IOException e) {
+            // 部分文件系统不支持fsync目录
+        } finally {
+            IOUtils.closeQuietly(channel);
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        if (Files.getFileAttributeView(to, PosixFileAttributeView.class) != null && Files.isRegularFile(from)) {
+            try {
+                Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+            } catch (IOException ignored) {
+                // 目标文件恰好被删除时使用默认权限
+            }
+        }
+    }
+
+    /**
+     * 去掉写入临时文件时无效的CLOSE_OUTPUT和ATOMIC
+     */
+    static CopyOption[] streamOptions(CopyOption[] options) {
+        List<CopyOption> list = new ArrayList<>(options.length);
+        for (CopyOption option : options) {
+            if (option != CopyOption.CLOSE_OUTPUT && option != CopyOption.ATOMIC) {
+                list.add(Objects.requireNonNull(option));
+            }
+        }
+        return list.toArray(new CopyOption[0]);
+    }
+
+    /**
+     * 向输出流写入文件内容的序列化器
+     */
+    @FunctionalInterface
+    public interface Content {
+        /**
+         * 写入内容
+         *
+         * @param out 输出流，不需要关闭
+         * @throws IOException 当出现IO异常时抛出
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface ChannelWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * <p>一个目录的组提交状态</p>
+     * <p>requested为已完成重命名、等待fsync的最大序号，synced为已持久化的最大序号；
+     * 没有线程正在fsync时，等待者中的一个成为领导者，一次fsync覆盖此前所有的请求</p>
+     * <p>users为正在使用本对象的线程数，只在{@link ConcurrentHashMap#compute}中修改，降为0时从表中移除</p>
+     */
+    private final class DirectorySync {
+        private final Path dir;
+        private int users;
+        private long requested;
+        private long synced;
+        private boolean syncing;
+
+        private DirectorySync(Path dir) {
+            this.dir = dir;
+        }
+
+        private void sync() throws IOException {
+            long ticket;
+            long target;
+            synchronized (this) {
+                ticket = ++requested;
+                while (true) {
+                    if (synced >= ticket) {
+                        return;
+                    }
+                    if (!syncing) {
+                        syncing = true;
+                        target = requested;
+                        break;
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Interrupted while waiting for directory sync: " + dir, e);
+                    }
+                }
+            }
+            try {
+                syncDirectory(dir);
+            } finally {
+                synchronized (this) {
+                    syncing = false;
+                    synced = Math.max(synced, target);
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package online.flowerinsnow.saussureautils.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * <p>从底层输入流读取Base64，解码后返回原始数据</p>
+ * <p>只使用固定大小的缓冲区，可以解码任意大小的数据，例如：</p>
+ * <p>IOUtils.copy(new Base64DecodingInputStream(Files.newInputStream(src)), Files.newOutputStream(dst), CopyOption.CLOSE_INPUT, CopyOption.CLOSE_OUTPUT);</p>
+ * <p>遇到格式错误的数据时抛出{@link IOException}</p>
+ * <p>不支持标记，关闭本流时会关闭底层输入流</p>
+ */
+public class Base64DecodingInputStream extends FilterInputStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * 解码标准Base64，不允许换行
+     *
+     * @param in 底层输入流
+     */
+    public Base64DecodingInputStream(@NotNull InputStream in) {
+        this(in, false);
+    }
+
+    /**
+     * @param in 底层输入流
+     * @param mime 是否按MIME格式解码，即忽略换行等不属于Base64的字符
+     */
+    public Base64DecodingInputStream(@NotNull InputStream in, boolean mime) {
+        super((mime ? Base64.getMimeDecoder() : Base64.getDecoder()).wrap(new BufferedInputStream(Objects.requireNonNull(in), BUFFER_SIZE)));
+    }
+
+    @Override
+    public int read(@NotNull byte[] b, int off, int len) throws IOException {
+        return in.read(b, off, len);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
@@ -0,0 +1,32 @@
+package online.flowerinsnow.saussureautils.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * <p>将写入的数据编码为带填充的标准Base64，再写入到底层输出流，结果与{@link Base64#getEncoder()}相同</p>
+ * <p>只使用固定大小的缓冲区，可以编码任意大小的数据，例如：</p>
+ * <p>IOUtils.copy(Files.newInputStream(src), new Base64EncodingOutputStream(Files.newOutputStream(dst)), CopyOption.CLOSE_INPUT, CopyOption.CLOSE_OUTPUT);</p>
+ * <p>不足3个字节的末尾数据和填充只在关闭时写出，因此必须关闭本流，关闭本流时会关闭底层输出流</p>
+ */
+public class Base64EncodingOutputStream extends FilterOutputStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * @param out 底层输出流
+     */
+    public Base64EncodingOutputStream(@NotNull OutputStream out) {
+        super(Base64.getEncoder().wrap(new BufferedOutputStream(Objects.requireNonNull(out), BUFFER_SIZE)));
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+    }
+}
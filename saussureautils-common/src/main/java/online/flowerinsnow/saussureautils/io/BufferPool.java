@@ -0,0 +1,39 @@
+package online.flowerinsnow.saussureautils.io;
+
+/**
+ * <p>byte数组缓冲区池，用于重复使用临时缓冲区，减少频繁分配产生的垃圾</p>
+ * <p>取出的缓冲区可能含有上次使用留下的数据，且长度可能大于请求的长度</p>
+ * <p>归还后不得再使用该缓冲区，同一个缓冲区也不得归还两次</p>
+ * <p>实现必须是线程安全的，默认的实现为{@link SizeClassBufferPool}，可以通过{@link IOUtils#setBufferPool(BufferPool)}替换</p>
+ */
+public interface BufferPool {
+    /**
+     * 取出一个缓冲区，池中没有合适的缓冲区时分配一个新的
+     *
+     * @param minLength 最小长度
+     * @return 长度不小于最小长度的缓冲区
+     * @throws IllegalArgumentException 当最小长度为负数时抛出
+     */
+    byte[] acquire(int minLength) throws IllegalArgumentException;
+
+    /**
+     * 归还一个缓冲区，池已满或不接受该长度时直接丢弃
+     *
+     * @param buffer 缓冲区，可为空，为空时不做任何事
+     */
+    void release(byte[] buffer);
+
+    /**
+     * 获取取出时命中池中缓冲区的次数
+     *
+     * @return 命中次数
+     */
+    long hits();
+
+    /**
+     * 获取取出时没有命中，需要分配新缓冲区的次数
+     *
+     * @return 未命中次数
+     */
+    long misses();
+}
@@ -2,9 +2,15 @@ package online.flowerinsnow.saussureautils.io;
 
 
 import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.util.Objects;
 
 /**
- * 它就像是{@link java.io.ByteArrayInputStream}，但是没有异常
+ * <p>它就像是{@link java.io.ByteArrayInputStream}，但是没有异常</p>
+ * <p>所有方法都是同步的，只在一个线程中使用时请使用{@link UnsynchronizedByteArrayReadStream}</p>
+ * <p>readInt、readVarInt、readUTF8等方法读取{@link ByteArrayWriteStream}中对应方法写入的数据，直接在缓冲区上解码，
+ * 数据不足时抛出{@link BufferUnderflowException}且位置不变，定长数值的字节序由{@link #order(ByteOrder)}指定，默认为大端序</p>
  */
 public class ByteArrayReadStream extends InputStream {
 
@@ -53,6 +59,11 @@ public class ByteArrayReadStream extends InputStream {
      */
     protected int count;
 
+    /**
+     * 读取定长数值时是否使用大端序
+     */
+    protected boolean bigEndian = true;
+
     /**
      * Creates a <code>ByteArrayInputStream</code>
      * so that it  uses <code>buf</code> as its
@@ -161,6 +172,140 @@ public class ByteArrayReadStream extends InputStream {
         return len;
     }
 
+    /**
+     * 获取读取定长数值时使用的字节序
+     *
+     * @return 字节序
+     */
+    public synchronized ByteOrder order() {
+        return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    /**
+     * 设置读取定长数值时使用的字节序
+     *
+     * @param order 字节序
+     * @return 本流
+     */
+    public synchronized ByteArrayReadStream order(ByteOrder order) {
+        bigEndian = Objects.requireNonNull(order) == ByteOrder.BIG_ENDIAN;
+        return this;
+    }
+
+    /**
+     * 按当前字节序读取2个字节的short
+     *
+     * @return 数值
+     * @throws BufferUnderflowException 当剩余数据不足时抛出
+     */
+    public synchronized short readShort() throws BufferUnderflowException {
+        PrimitiveCodec.require(pos, count, 2);
+        short v = PrimitiveCodec.getShort(buf, pos, bigEndian);
+        pos += 2;
+        return v;
+    }
+
+    /**
+     * 按当前字节序读取4个字节的int
+     *
+     * @return 数值
+     * @throws BufferUnderflowException 当剩余数据不足时抛出
+     */
+    public synchronized int readInt() throws BufferUnderflowException {
+        PrimitiveCodec.require(pos, count, 4);
+        int v = PrimitiveCodec.getInt(buf, pos, bigEndian);
+        pos += 4;
+        return v;
+    }
+
+    /**
+     * 按当前字节序读取8个字节的long
+     *
+     * @return 数值
+     * @throws BufferUnderflowException 当剩余数据不足时抛出
+     */
+    public synchronized long readLong() throws BufferUnderflowException {
+        PrimitiveCodec.require(pos, count, 8);
+        long v = PrimitiveCodec.getLong(buf, pos, bigEndian);
+        pos += 8;
+        return v;
+    }
+
+    /**
+     * 按当前字节序读取4个字节的float
+     *
+     * @return 数值
+     * @throws BufferUnderflowException 当剩余数据不足时抛出
+     */
+    public synchronized float readFloat() throws BufferUnderflowException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    /**
+     * 按当前字节序读取8个字节的double
+     *
+     * @return 数值
+     * @throws BufferUnderflowException 当剩余数据不足时抛出
+     */
+    public synchronized double readDouble() throws BufferUnderflowException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * 读取{@link ByteArrayWriteStream#writeVarInt(int)}写入的变长int
+     *
+     * @return 数值
+     * @throws BufferUnderflowException 当数据在变长整数中间结束时抛出
+     * @throws IllegalArgumentException 当变长整数超过5个字节时抛出
+     */
+    public synchronized int readVarInt() throws BufferUnderflowException, IllegalArgumentException {
+        return PrimitiveCodec.readVarInt(this);
+    }
+
+    /**
+     * 读取{@link ByteArrayWriteStream#writeVarLong(long)}写入的变长long
+     *
+     * @return 数值
+     * @throws BufferUnderflowException 当数据在变长整数中间结束时抛出
+     * @throws IllegalArgumentException 当变长整数超过10个字节时抛出
+     */
+    public synchronized long readVarLong() throws BufferUnderflowException, IllegalArgumentException {
+        return PrimitiveCodec.readVarLong(this);
+    }
+
+    /**
+     * 读取{@link ByteArrayWriteStream#writeZigZagInt(int)}写入的数值
+     *
+     * @return 数值
+     * @throws BufferUnderflowException 当数据在变长整数中间结束时抛出
+     * @throws IllegalArgumentException 当变长整数超过5个字节时抛出
+     */
+    public synchronized int readZigZagInt() throws BufferUnderflowException, IllegalArgumentException {
+        return PrimitiveCodec.unZigZag(PrimitiveCodec.readVarInt(this));
+    }
+
+    /**
+     * 读取{@link ByteArrayWriteStream#writeZigZagLong(long)}写入的数值
+     *
+     * @return 数值
+     * @throws BufferUnderflowException 当数据在变长整数中间结束时抛出
+     * @throws IllegalArgumentException 当变长整数超过10个字节时抛出
+     */
+    public synchronized long readZigZagLong() throws BufferUnderflowException, IllegalArgumentException {
+        return PrimitiveCodec.unZigZag(PrimitiveCodec.readVarLong(this));
+    }
+
+    /**
+     * 读取{@link ByteArrayWriteStream#writeUTF8(String)}写入的字符串，直接从缓冲区解码，不合法的UTF-8序列替换为U+FFFD
+     *
+     * @return 字符串
+     * @throws BufferUnderflowException 当剩余数据不足时抛出
+     * @throws IllegalArgumentException 当字节数不合法时抛出
+     */
+    public synchronized String readUTF8() throws BufferUnderflowException, IllegalArgumentException {
+        return PrimitiveCodec.readUTF8(this);
+    }
+
     /**
      * Skips <code>n</code> bytes of input from this input stream. Fewer
      * bytes might be skipped if the end of the input stream is reached.
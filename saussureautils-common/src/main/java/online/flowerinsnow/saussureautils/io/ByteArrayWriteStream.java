@@ -3,10 +3,20 @@ package online.flowerinsnow.saussureautils.io;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
+import java.util.Objects;
 
 /**
- * 它就像是{@link java.io.ByteArrayOutputStream}，但是没有异常
+ * <p>它就像是{@link java.io.ByteArrayOutputStream}，但是没有异常</p>
+ * <p>所有方法都是同步的，只在一个线程中使用时请使用{@link UnsynchronizedByteArrayWriteStream}</p>
+ * <p>指定{@link BufferPool}时内部缓冲区从池中取出，扩容时归还旧的缓冲区（已取得视图时除外，旧的缓冲区交给GC回收），用完后调用{@link #recycle()}归还，例如：</p>
+ * <p>ByteArrayWriteStream out = new ByteArrayWriteStream(IOUtils.getBufferPool(), 4096);</p>
+ * <p>try { serialize(out); out.writeTo(channel); } finally { out.recycle(); }</p>
+ * <p>writeInt、writeVarInt、writeUTF8等方法直接在内部缓冲区中编码，不会创建中间对象，
+ * 定长数值的字节序由{@link #order(ByteOrder)}指定，默认为大端序，可以用{@link ByteArrayReadStream}中对应的方法读取</p>
  */
 public class ByteArrayWriteStream extends OutputStream {
 
@@ -20,6 +30,22 @@ public class ByteArrayWriteStream extends OutputStream {
      */
     protected int count;
 
+    /**
+     * 写入定长数值时是否使用大端序
+     */
+    protected boolean bigEndian = true;
+
+    /**
+     * 内部缓冲区是否已通过{@link #buffer()}、{@link #toByteBuffer()}或{@link #toReadStream()}交给外部，
+     * 此时扩容不会将旧的缓冲区归还到池中，以免视图读到池中其它使用者写入的数据
+     */
+    protected boolean shared;
+
+    /**
+     * 内部缓冲区所属的池，为空时不使用池
+     */
+    private final BufferPool pool;
+
     /**
      * Creates a new byte array output stream. The buffer capacity is
      * initially 32 bytes, though its size increases if necessary.
@@ -41,6 +67,23 @@ public class ByteArrayWriteStream extends OutputStream {
                     + size);
         }
         buf = new byte[size];
+        pool = null;
+    }
+
+    /**
+     * 从缓冲区池中取出内部缓冲区，用完后应调用{@link #recycle()}归还
+     *
+     * @param pool 缓冲区池
+     * @param size 初始大小，实际大小可能更大
+     * @throws IllegalArgumentException 当初始大小为负数时抛出
+     */
+    public ByteArrayWriteStream(BufferPool pool, int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative initial size: "
+                    + size);
+        }
+        this.pool = Objects.requireNonNull(pool);
+        buf = pool.acquire(size);
     }
 
     /**
@@ -53,7 +96,7 @@ public class ByteArrayWriteStream extends OutputStream {
      * interpreted as a request for the unsatisfiably large capacity
      * {@code (long) Integer.MAX_VALUE + (minCapacity - Integer.MAX_VALUE)}.
      */
-    private void ensureCapacity(int minCapacity) {
+    protected void ensureCapacity(int minCapacity) {
         // overflow-conscious code
         if (minCapacity - buf.length > 0)
             grow(minCapacity);
@@ -67,6 +110,8 @@ public class ByteArrayWriteStream extends OutputStream {
      */
     private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
 
+    private static final byte[] EMPTY = new byte[0];
+
     /**
      * Increases the capacity to ensure that it can hold at least the
      * number of elements specified by the minimum capacity argument.
@@ -81,7 +126,19 @@ public class ByteArrayWriteStream extends OutputStream {
             newCapacity = minCapacity;
         if (newCapacity - MAX_ARRAY_SIZE > 0)
             newCapacity = hugeCapacity(minCapacity);
-        buf = Arrays.copyOf(buf, newCapacity);
+        if (pool == null) {
+            buf = Arrays.copyOf(buf, newCapacity);
+        } else {
+            byte[] newBuf = pool.acquire(newCapacity);
+            System.arraycopy(buf, 0, newBuf, 0, count);
+            if (shared) {
+                // 旧的缓冲区可能仍被视图引用，交给GC回收
+                shared = false;
+            } else {
+                pool.release(buf);
+            }
+            buf = newBuf;
+        }
     }
 
     private static int hugeCapacity(int minCapacity) {
@@ -121,6 +178,128 @@ public class ByteArrayWriteStream extends OutputStream {
         count += len;
     }
 
+    /**
+     * 获取写入定长数值时使用的字节序
+     *
+     * @return 字节序
+     */
+    public synchronized ByteOrder order() {
+        return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    /**
+     * 设置写入定长数值时使用的字节序，不影响已写入的数据
+     *
+     * @param order 字节序
+     * @return 本流
+     */
+    public synchronized ByteArrayWriteStream order(ByteOrder order) {
+        bigEndian = Objects.requireNonNull(order) == ByteOrder.BIG_ENDIAN;
+        return this;
+    }
+
+    /**
+     * 按当前字节序写入2个字节的short
+     *
+     * @param v 数值，只写入低16位
+     */
+    public synchronized void writeShort(int v) {
+        ensureCapacity(count + 2);
+        count = PrimitiveCodec.putShort(buf, count, (short) v, bigEndian);
+    }
+
+    /**
+     * 按当前字节序写入4个字节的int
+     *
+     * @param v 数值
+     */
+    public synchronized void writeInt(int v) {
+        ensureCapacity(count + 4);
+        count = PrimitiveCodec.putInt(buf, count, v, bigEndian);
+    }
+
+    /**
+     * 按当前字节序写入8个字节的long
+     *
+     * @param v 数值
+     */
+    public synchronized void writeLong(long v) {
+        ensureCapacity(count + 8);
+        count = PrimitiveCodec.putLong(buf, count, v, bigEndian);
+    }
+
+    /**
+     * 按当前字节序写入4个字节的float
+     *
+     * @param v 数值
+     */
+    public synchronized void writeFloat(float v) {
+        ensureCapacity(count + 4);
+        count = PrimitiveCodec.putInt(buf, count, Float.floatToRawIntBits(v), bigEndian);
+    }
+
+    /**
+     * 按当前字节序写入8个字节的double
+     *
+     * @param v 数值
+     */
+    public synchronized void writeDouble(double v) {
+        ensureCapacity(count + 8);
+        count = PrimitiveCodec.putLong(buf, count, Double.doubleToRawLongBits(v), bigEndian);
+    }
+
+    /**
+     * <p>写入1到5个字节的变长int，每个字节的低7位为数据，最高位表示后面还有字节，低位在前</p>
+     * <p>数值按无符号处理，负数总是占用5个字节，有符号的数值请使用{@link #writeZigZagInt(int)}</p>
+     *
+     * @param v 数值
+     */
+    public synchronized void writeVarInt(int v) {
+        ensureCapacity(count + PrimitiveCodec.MAX_VAR_INT_LENGTH);
+        count = PrimitiveCodec.putVarInt(buf, count, v);
+    }
+
+    /**
+     * <p>写入1到10个字节的变长long，格式与{@link #writeVarInt(int)}相同</p>
+     * <p>数值按无符号处理，负数总是占用10个字节，有符号的数值请使用{@link #writeZigZagLong(long)}</p>
+     *
+     * @param v 数值
+     */
+    public synchronized void writeVarLong(long v) {
+        ensureCapacity(count + PrimitiveCodec.MAX_VAR_LONG_LENGTH);
+        count = PrimitiveCodec.putVarLong(buf, count, v);
+    }
+
+    /**
+     * 先进行ZigZag编码再写入变长int，绝对值较小的负数也只占用很少的字节
+     *
+     * @param v 数值
+     */
+    public synchronized void writeZigZagInt(int v) {
+        ensureCapacity(count + PrimitiveCodec.MAX_VAR_INT_LENGTH);
+        count = PrimitiveCodec.putVarInt(buf, count, PrimitiveCodec.zigZag(v));
+    }
+
+    /**
+     * 先进行ZigZag编码再写入变长long，绝对值较小的负数也只占用很少的字节
+     *
+     * @param v 数值
+     */
+    public synchronized void writeZigZagLong(long v) {
+        ensureCapacity(count + PrimitiveCodec.MAX_VAR_LONG_LENGTH);
+        count = PrimitiveCodec.putVarLong(buf, count, PrimitiveCodec.zigZag(v));
+    }
+
+    /**
+     * <p>写入变长int表示的字节数，再写入UTF-8编码的字符串</p>
+     * <p>字符直接编码到内部缓冲区中，不会创建中间的byte数组，不成对的代理字符写为'?'，与{@link String#getBytes(java.nio.charset.Charset)}相同</p>
+     *
+     * @param s 字符串
+     */
+    public synchronized void writeUTF8(String s) {
+        PrimitiveCodec.writeUTF8(this, Objects.requireNonNull(s));
+    }
+
     /**
      * Writes the complete contents of this byte array output stream to
      * the specified output stream argument, as if by calling the output
@@ -133,6 +312,55 @@ public class ByteArrayWriteStream extends OutputStream {
         out.write(buf, 0, count);
     }
 
+    /**
+     * 将全部数据写入到通道中，不会复制内部缓冲区
+     *
+     * @param channel 目标通道
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public synchronized void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(buf, 0, count);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * <p>获取当前数据的只读视图，不会复制内部缓冲区</p>
+     * <p>视图的范围固定为调用时的数据，之后的写入不会反映到视图中；
+     * 调用{@link #reset()}后再写入会覆盖视图中的数据，内部缓冲区扩容后视图仍指向旧的缓冲区</p>
+     *
+     * @return 只读的缓冲区，位置为0，界限为当前大小
+     */
+    public synchronized ByteBuffer toByteBuffer() {
+        shared = true;
+        return ByteBuffer.wrap(buf, 0, count).asReadOnlyBuffer();
+    }
+
+    /**
+     * <p>直接获取内部缓冲区，不会复制，有效数据为下标0到{@link #size()}之间的部分</p>
+     * <p>只应由可信的调用者使用：修改返回的数组会直接修改本流的数据，继续写入可能使内部缓冲区被替换</p>
+     *
+     * @return 内部缓冲区
+     */
+    public synchronized byte[] buffer() {
+        shared = true;
+        return buf;
+    }
+
+    /**
+     * <p>创建一个读取当前数据的{@link ByteArrayReadStream}，与本流共享内部缓冲区，不会复制</p>
+     * <p>在读取完毕之前不应再写入本流或调用{@link #reset()}，输入流的字节序与本流相同</p>
+     *
+     * @return 输入流
+     */
+    public synchronized ByteArrayReadStream toReadStream() {
+        shared = true;
+        ByteArrayReadStream in = new ByteArrayReadStream(buf, 0, count);
+        in.bigEndian = bigEndian;
+        return in;
+    }
+
     /**
      * Resets the &lt;code&gt;count&lt;/code&gt; field of this byte array output
      * stream to zero, so that all currently accumulated output in the
@@ -145,6 +373,27 @@ public class ByteArrayWriteStream extends OutputStream {
         count = 0;
     }
 
+    /**
+     * <p>丢弃已写入的数据，并将内部缓冲区归还到构造时指定的池中，没有指定池时只丢弃数据</p>
+     * <p>之后仍然可以继续写入，届时会重新从池中取出缓冲区；
+     * 此前通过{@link #buffer()}、{@link #toByteBuffer()}和{@link #toReadStream()}得到的对象都不能再使用</p>
+     */
+    public synchronized void recycle() {
+        recycleBuffer();
+    }
+
+    /**
+     * {@link #recycle()}的实现，不加锁
+     */
+    final void recycleBuffer() {
+        count = 0;
+        shared = false;
+        if (pool != null) {
+            pool.release(buf);
+            buf = EMPTY;
+        }
+    }
+
     /**
      * Creates a newly allocated byte array. Its size is the current
      * size of this output stream and the valid contents of the buffer
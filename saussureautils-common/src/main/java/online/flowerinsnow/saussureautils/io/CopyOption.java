@@ -11,5 +11,38 @@ public enum CopyOption {
     /**
      * 完成后自动关闭输出流
      */
-    CLOSE_OUTPUT
+    CLOSE_OUTPUT,
+    /**
+     * <p>总是使用8KB的缓冲区</p>
+     * <p>默认情况下已知数据大小时按大小选择缓冲区，未知时从8KB开始，每次读满缓冲区后翻倍，最大256KB</p>
+     */
+    SMALL_BUFFER,
+    /**
+     * 总是使用1MB的缓冲区，适合高延迟的存储或网络，与{@link #SMALL_BUFFER}同时指定时以{@link #SMALL_BUFFER}为准
+     */
+    LARGE_BUFFER,
+    /**
+     * <p>不使用FileChannel.transferTo、FileChannel.transferFrom和Files.copy，总是经过缓冲区复制</p>
+     * <p>默认情况下文件之间的复制由操作系统完成（Linux上为sendfile或copy_file_range），数据不经过Java堆</p>
+     */
+    NO_ZERO_COPY,
+    /**
+     * <p>文件之间复制时，若目标文件存在且大小和修改时间都与源文件相同，则跳过复制</p>
+     * <p>复制后会将目标文件的修改时间设为与源文件相同，以便下次比较</p>
+     */
+    SKIP_UNCHANGED,
+    /**
+     * 文件之间复制时，将源文件的修改时间、访问时间、创建时间和POSIX权限复制到目标文件，不支持的属性会被忽略
+     */
+    PRESERVE_ATTRIBUTES,
+    /**
+     * <p>复制到文件时先写入同目录下的临时文件并fsync，再原子地替换目标文件，中途崩溃不会留下写了一半的文件</p>
+     * <p>比直接覆盖多一次文件fsync和一次目录fsync，同一目录下并发的复制会合并目录fsync，见{@link AtomicFileWriter}</p>
+     */
+    ATOMIC,
+    /**
+     * <p>按{@link IOUtils#getRateLimiter()}限速，同时进行的所有限速复制共享同一个令牌桶，总速度不超过限制</p>
+     * <p>适合后台备份等不能占满磁盘的复制；限速时不使用FileChannel.transferTo等快速路径，缓冲区不超过限速器的突发量</p>
+     */
+    THROTTLE
 }
@@ -0,0 +1,85 @@
+package online.flowerinsnow.saussureautils.io;
+
+/**
+ * 异步复制的进度
+ */
+public final class CopyProgress {
+    private final long transferred;
+    private final long total;
+    private final long elapsedNanos;
+    private final boolean done;
+
+    CopyProgress(long transferred, long total, long elapsedNanos, boolean done) {
+        this.transferred = transferred;
+        this.total = total;
+        this.elapsedNanos = elapsedNanos;
+        this.done = done;
+    }
+
+    /**
+     * 获取已复制的字节数
+     *
+     * @return 已复制的字节数
+     */
+    public long transferred() {
+        return transferred;
+    }
+
+    /**
+     * 获取总字节数
+     *
+     * @return 总字节数，未知时为-1
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * 获取开始复制以来经过的时间
+     *
+     * @return 纳秒数
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 获取开始复制以来的平均速度
+     *
+     * @return 每秒字节数，还没有经过时间时为0
+     */
+    public double bytesPerSecond() {
+        return elapsedNanos <= 0 ? 0 : transferred * 1_000_000_000D / elapsedNanos;
+    }
+
+    /**
+     * 获取完成的比例
+     *
+     * @return 0到1之间的比例，总字节数未知时为-1
+     */
+    public double fraction() {
+        if (total < 0) {
+            return -1;
+        }
+        return total == 0 ? 1 : Math.min(1, (double) transferred / total);
+    }
+
+    /**
+     * 是否是复制成功后的最后一次报告
+     *
+     * @return 若复制已完成，返回true
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public String toString() {
+        return "CopyProgress{" +
+                "transferred=" + transferred +
+                ", total=" + total +
+                ", elapsedNanos=" + elapsedNanos +
+                ", done=" + done +
+                '}';
+    }
+}
@@ -0,0 +1,14 @@
+package online.flowerinsnow.saussureautils.io;
+
+/**
+ * 异步复制的进度监听器，在执行复制的线程中调用，不应执行耗时的操作
+ */
+@FunctionalInterface
+public interface CopyProgressListener {
+    /**
+     * 报告进度，抛出的异常会使复制失败
+     *
+     * @param progress 进度
+     */
+    void onProgress(CopyProgress progress);
+}
@@ -0,0 +1,57 @@
+package online.flowerinsnow.saussureautils.io;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>立即释放直接缓冲区的内存，而不是等待垃圾回收</p>
+ * <p>Java 9及以上使用sun.misc.Unsafe#invokeCleaner，Java 8使用sun.misc.Cleaner，都不可用时什么也不做，由垃圾回收释放</p>
+ */
+final class DirectBuffers {
+    private static final MethodHandle FREE;
+
+    static {
+        MethodHandle free;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            free = MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class)).bindTo(unsafe);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            try {
+                Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                MethodHandle getCleaner = MethodHandles.lookup().unreflect(cleaner).asType(MethodType.methodType(Object.class, ByteBuffer.class));
+                MethodHandle doClean = MethodHandles.lookup().unreflect(clean).asType(MethodType.methodType(void.class, Object.class));
+                free = MethodHandles.filterReturnValue(getCleaner, doClean);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                free = null;
+            }
+        }
+        FREE = free;
+    }
+
+    private DirectBuffers() {
+    }
+
+    /**
+     * 释放直接缓冲区，之后不得再访问该缓冲区及其所有视图
+     *
+     * @param buffer 由{@link ByteBuffer#allocateDirect(int)}分配的缓冲区，不能是它的视图；不是直接缓冲区时什么也不做
+     */
+    static void free(ByteBuffer buffer) {
+        if (FREE == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            FREE.invokeExact(buffer);
+        } catch (Throwable ignored) {
+            // 无法立即释放时交给垃圾回收
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package online.flowerinsnow.saussureautils.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * <p>从一组缓冲区（通常是堆外的直接缓冲区）中读取数据的输入流，与{@link ByteArrayReadStream}用法相同</p>
+ * <p>{@link #transferTo(WritableByteChannel)}和{@link #read(ByteBuffer)}直接在缓冲区之间传输，不经过堆内的数组</p>
+ * <p>通过{@link #readFrom(ReadableByteChannel)}创建的输入流拥有自己的堆外内存，用完后必须调用{@link #release()}释放；
+ * 其它方式创建的输入流只引用调用者的缓冲区，{@link #release()}只会丢弃引用</p>
+ * <p>本类不是线程安全的</p>
+ */
+public class DirectByteReadStream extends InputStream {
+    private ByteBuffer[] buffers;
+    /**
+     * 拥有堆外内存的写入流，为空时不负责释放内存
+     */
+    private final DirectByteWriteStream owner;
+    /**
+     * 当前正在读取的缓冲区的下标
+     */
+    private int index;
+    private int markIndex;
+    private int[] markPositions;
+
+    /**
+     * 读取所有缓冲区剩余的数据，不会复制数据，也不会改变传入的缓冲区的位置
+     *
+     * @param buffers 缓冲区，可以是直接缓冲区
+     */
+    public DirectByteReadStream(ByteBuffer... buffers) {
+        this(duplicate(buffers), null);
+    }
+
+    DirectByteReadStream(ByteBuffer[] buffers, DirectByteWriteStream owner) {
+        this.buffers = buffers;
+        this.owner = owner;
+        mark(0);
+    }
+
+    /**
+     * 将通道中的全部数据读入堆外内存，并创建读取这些数据的输入流，用完后必须调用{@link #release()}
+     *
+     * @param channel 源通道，例如{@link java.nio.channels.FileChannel}
+     * @return 输入流
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public static DirectByteReadStream readFrom(ReadableByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel);
+        DirectByteWriteStream out = new DirectByteWriteStream();
+        try {
+            out.readFrom(channel);
+        } catch (IOException | RuntimeException e) {
+            out.release();
+            throw e;
+        }
+        return new DirectByteReadStream(out.toByteBuffers(), out);
+    }
+
+    @Override
+    public int read() {
+        ByteBuffer buffer = readable();
+        return buffer == null ? -1 : buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        int total = 0;
+        ByteBuffer buffer;
+        while (len > 0 && (buffer = readable()) != null) {
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            off += n;
+            len -= n;
+            total += n;
+        }
+        return total == 0 ? -1 : total;
+    }
+
+    /**
+     * 读取数据到目标缓冲区中，直到目标缓冲区已满或没有更多数据
+     *
+     * @param dst 目标缓冲区，可以是直接缓冲区
+     * @return 读取的字节数，没有更多数据时返回-1
+     */
+    public int read(ByteBuffer dst) {
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        int total = 0;
+        ByteBuffer buffer;
+        while (dst.hasRemaining() && (buffer = readable()) != null) {
+            int n = Math.min(dst.remaining(), buffer.remaining());
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(slice.position() + n);
+            dst.put(slice);
+            buffer.position(buffer.position() + n);
+            total += n;
+        }
+        return total == 0 ? -1 : total;
+    }
+
+    /**
+     * 将剩余的全部数据写入到通道中，若通道是{@link GatheringByteChannel}则一次提交所有缓冲区
+     *
+     * @param channel 目标通道，例如{@link java.nio.channels.FileChannel}和{@link java.nio.channels.SocketChannel}
+     * @return 写入的字节数
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public long transferTo(WritableByteChannel channel) throws IOException {
+        long total = remaining();
+        if (channel instanceof GatheringByteChannel) {
+            GatheringByteChannel gathering = (GatheringByteChannel) channel;
+            while (index < buffers.length) {
+                gathering.write(buffers, index, buffers.length - index);
+                while (index < buffers.length && !buffers[index].hasRemaining()) {
+                    index++;
+                }
+            }
+        } else {
+            for (; index < buffers.length; index++) {
+                while (buffers[index].hasRemaining()) {
+                    channel.write(buffers[index]);
+                }
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = 0;
+        ByteBuffer buffer;
+        while (skipped < n && (buffer = readable()) != null) {
+            int k = (int) Math.min(n - skipped, buffer.remaining());
+            buffer.position(buffer.position() + k);
+            skipped += k;
+        }
+        return skipped;
+    }
+
+    /**
+     * 获取剩余的字节数
+     *
+     * @return 剩余的字节数
+     */
+    public long remaining() {
+        long remaining = 0;
+        for (int i = index; i < buffers.length; i++) {
+            remaining += buffers[i].remaining();
+        }
+        return remaining;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, remaining());
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /**
+     * 标记当前位置，readAheadLimit没有任何意义
+     */
+    @Override
+    public void mark(int readAheadLimit) {
+        markIndex = index;
+        markPositions = new int[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            markPositions[i] = buffers[i].position();
+        }
+    }
+
+    @Override
+    public void reset() {
+        index = markIndex;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i].position(markPositions[i]);
+        }
+    }
+
+    /**
+     * 释放本流，通过{@link #readFrom(ReadableByteChannel)}创建时会立即释放堆外内存，之后本流不能再使用
+     */
+    public void release() {
+        buffers = new ByteBuffer[0];
+        index = 0;
+        mark(0);
+        if (owner != null) {
+            owner.release();
+        }
+    }
+
+    /**
+     * 关闭本流没有任何效果，堆外内存需要调用{@link #release()}释放
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * 获取还有剩余数据的缓冲区，没有更多数据时返回null
+     */
+    private ByteBuffer readable() {
+        while (index < buffers.length) {
+            ByteBuffer buffer = buffers[index];
+            if (buffer.hasRemaining()) {
+                return buffer;
+            }
+            index++;
+        }
+        return null;
+    }
+
+    private static ByteBuffer[] duplicate(ByteBuffer[] buffers) {
+        ByteBuffer[] copy = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            copy[i] = buffers[i].duplicate();
+        }
+        return copy;
+    }
+}
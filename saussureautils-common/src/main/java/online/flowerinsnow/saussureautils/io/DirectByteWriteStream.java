@@ -0,0 +1,280 @@
+package online.flowerinsnow.saussureautils.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>写入到堆外内存的字节输出流，与{@link ByteArrayWriteStream}用法相同，但数据保存在一组固定大小的直接缓冲区中</p>
+ * <p>空间不足时追加一个新的直接缓冲区，不会复制已有的数据，总大小可以超过2GB</p>
+ * <p>{@link #writeTo(WritableByteChannel)}和{@link #readFrom(ReadableByteChannel)}直接在直接缓冲区和通道之间传输，
+ * 例如{@link java.nio.channels.FileChannel}和{@link java.nio.channels.SocketChannel}，不经过堆内的数组</p>
+ * <p>用完后必须调用{@link #release()}立即释放堆外内存，关闭本流没有任何效果</p>
+ * <p>本类不是线程安全的</p>
+ */
+public class DirectByteWriteStream extends OutputStream {
+    /**
+     * 默认的段大小
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 256 * 1024;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final int segmentSize;
+    /**
+     * 已分配的段，{@link #reset()}后会被重复使用
+     */
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    /**
+     * 当前正在写入的段的下标，没有任何段时为-1
+     */
+    private int index = -1;
+    private ByteBuffer current;
+    private boolean released;
+
+    /**
+     * 使用默认的段大小
+     */
+    public DirectByteWriteStream() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param segmentSize 每个直接缓冲区的大小
+     * @throws IllegalArgumentException 当段大小不是正数时抛出
+     */
+    public DirectByteWriteStream(int segmentSize) throws IllegalArgumentException {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public void write(int b) {
+        writable().put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            ByteBuffer segment = writable();
+            int n = Math.min(len, segment.remaining());
+            segment.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * 写入缓冲区剩余的全部数据，完成后缓冲区的位置会移动到末尾
+     *
+     * @param src 源数据，可以是直接缓冲区
+     */
+    public void write(ByteBuffer src) {
+        while (src.hasRemaining()) {
+            ByteBuffer segment = writable();
+            if (src.remaining() <= segment.remaining()) {
+                segment.put(src);
+            } else {
+                ByteBuffer slice = src.duplicate();
+                slice.limit(slice.position() + segment.remaining());
+                segment.put(slice);
+                src.position(slice.position());
+            }
+        }
+    }
+
+    /**
+     * 从通道中读取数据，直到通道结束
+     *
+     * @param channel 源通道
+     * @return 读取的字节数
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public long readFrom(ReadableByteChannel channel) throws IOException {
+        long total = 0;
+        while (true) {
+            int read = channel.read(writable());
+            if (read == -1) {
+                return total;
+            }
+            total += read;
+        }
+    }
+
+    /**
+     * 获取已写入的字节数
+     *
+     * @return 已写入的字节数
+     */
+    public long size() {
+        return index < 0 ? 0 : (long) index * segmentSize + current.position();
+    }
+
+    /**
+     * 丢弃已写入的数据，已分配的段会被保留并重复使用
+     */
+    public void reset() {
+        checkReleased();
+        for (int i = 0; i <= index; i++) {
+            segments.get(i).clear();
+        }
+        index = -1;
+        current = null;
+    }
+
+    /**
+     * 将全部数据写入到通道中，若通道是{@link GatheringByteChannel}则一次提交所有段
+     *
+     * @param channel 目标通道
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer[] buffers = buffers(false);
+        if (channel instanceof GatheringByteChannel) {
+            GatheringByteChannel gathering = (GatheringByteChannel) channel;
+            int first = 0;
+            while (first < buffers.length) {
+                gathering.write(buffers, first, buffers.length - first);
+                while (first < buffers.length && !buffers[first].hasRemaining()) {
+                    first++;
+                }
+            }
+        } else {
+            for (ByteBuffer buffer : buffers) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * 将全部数据写入到输出流中，需要经过一个堆内的临时缓冲区
+     *
+     * @param out 输出流
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        BufferPool pool = IOUtils.getBufferPool();
+        byte[] bytes = pool.acquire(8192);
+        try {
+            for (ByteBuffer buffer : buffers(false)) {
+                while (buffer.hasRemaining()) {
+                    int n = Math.min(bytes.length, buffer.remaining());
+                    buffer.get(bytes, 0, n);
+                    out.write(bytes, 0, n);
+                }
+            }
+        } finally {
+            pool.release(bytes);
+        }
+    }
+
+    /**
+     * 获取每个段中数据的只读视图，不会复制数据，在{@link #release()}后不得再访问
+     *
+     * @return 按顺序排列的只读缓冲区
+     */
+    public ByteBuffer[] toByteBuffers() {
+        return buffers(true);
+    }
+
+    /**
+     * 创建一个读取当前数据的{@link DirectByteReadStream}，与本流共享所有段，不会复制
+     * 在读取完毕之前不应再写入本流、调用{@link #reset()}或{@link #release()}
+     *
+     * @return 输入流
+     */
+    public DirectByteReadStream toReadStream() {
+        return new DirectByteReadStream(buffers(true), null);
+    }
+
+    /**
+     * 将全部数据复制到一个新的堆内数组中
+     *
+     * @return 全部数据
+     * @throws OutOfMemoryError 当数据超过数组的最大长度时抛出
+     */
+    public byte[] toByteArray() throws OutOfMemoryError {
+        long size = size();
+        if (size > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Required array size too large: " + size);
+        }
+        byte[] result = new byte[(int) size];
+        int pos = 0;
+        for (ByteBuffer buffer : buffers(false)) {
+            int n = buffer.remaining();
+            buffer.get(result, pos, n);
+            pos += n;
+        }
+        return result;
+    }
+
+    /**
+     * 立即释放所有段占用的堆外内存，之后本流及其创建的视图和输入流都不能再使用
+     * 重复调用没有任何效果
+     */
+    public void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        for (ByteBuffer segment : segments) {
+            DirectBuffers.free(segment);
+        }
+        segments.clear();
+        index = -1;
+        current = null;
+    }
+
+    /**
+     * 关闭本流没有任何效果，堆外内存需要调用{@link #release()}释放
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * 获取可以写入的段，当前段已满时切换到下一个段
+     */
+    private ByteBuffer writable() {
+        if (current == null || !current.hasRemaining()) {
+            checkReleased();
+            index++;
+            if (index < segments.size()) {
+                current = segments.get(index);
+            } else {
+                current = ByteBuffer.allocateDirect(segmentSize);
+                segments.add(current);
+            }
+        }
+        return current;
+    }
+
+    private ByteBuffer[] buffers(boolean readOnly) {
+        checkReleased();
+        ByteBuffer[] buffers = new ByteBuffer[index + 1];
+        for (int i = 0; i <= index; i++) {
+            ByteBuffer buffer = (readOnly ? segments.get(i).asReadOnlyBuffer() : segments.get(i).duplicate());
+            buffer.flip();
+            buffers[i] = buffer;
+        }
+        return buffers;
+    }
+
+    private void checkReleased() {
+        if (released) {
+            throw new IllegalStateException("Stream has been released.");
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package online.flowerinsnow.saussureautils.io;
+
+import online.flowerinsnow.saussureautils.object.IExceptionHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>并发复制整个目录树，例如复制世界文件夹或插件数据目录</p>
+ * <p>先用{@link Files#walkFileTree}遍历源目录并创建所有目标目录，再在指定的线程池中并发复制文件，
+ * 同时复制的文件数不会超过指定的并发数</p>
+ * <p>每个文件通过{@link IOUtils#copy(Path, Path, CopyOption...)}复制，大文件会使用FileChannel.transferTo等快速路径，
+ * 支持{@link CopyOption#SKIP_UNCHANGED}跳过大小和修改时间都未变的文件，以及{@link CopyOption#PRESERVE_ATTRIBUTES}保留属性</p>
+ * <p>符号链接会被复制为符号链接，不会跟随；单个文件的IO异常交给异常处理器处理，不会中断其它文件</p>
+ * <p>例如：</p>
+ * <p>DirectoryCopier.Result result = new DirectoryCopier(executor, 16).copy(world, backup, new PrintStackTraceExceptionHandler&lt;&gt;(), CopyOption.SKIP_UNCHANGED);</p>
+ */
+public class DirectoryCopier {
+    private final Executor executor;
+    private final int concurrency;
+
+    /**
+     * @param executor 执行复制的线程池
+     * @param concurrency 最大并发数，即同时复制的文件数
+     * @throws IllegalArgumentException 当最大并发数不是正数时抛出
+     */
+    public DirectoryCopier(@NotNull Executor executor, int concurrency) throws IllegalArgumentException {
+        Objects.requireNonNull(executor);
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        this.executor = executor;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * 使用公共线程池，最大并发数为CPU核心数
+     */
+    public DirectoryCopier() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * <p>将源目录下的所有内容复制到目标目录中，阻塞直到全部完成</p>
+     * <p>目标目录不存在时会被创建，目标中已有但源中没有的文件会被保留</p>
+     *
+     * @param source 源目录
+     * @param target 目标目录，不能位于源目录中
+     * @param exceptionHandler 单个文件或目录出现异常时的异常处理器，可为空
+     * @param options 选项，CLOSE_INPUT和CLOSE_OUTPUT无效
+     * @return 复制的结果
+     * @throws NotDirectoryException 当源不是目录时抛出
+     * @throws IllegalArgumentException 当目标目录位于源目录中时抛出
+     * @throws IOException 当无法创建目标目录时抛出
+     * @throws InterruptedException 当等待时线程被中断时抛出，已开始的复制会继续进行
+     * @throws RuntimeException 当复制文件或异常处理器在工作线程中抛出运行时异常时，在其它文件复制完后抛出第一个
+     */
+    public @NotNull Result copy(@NotNull Path source, @NotNull Path target, @Nullable IExceptionHandler<IOException> exceptionHandler, @NotNull CopyOption... options) throws IllegalArgumentException, IOException, InterruptedException {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(target);
+        Objects.requireNonNull(options);
+        if (!Files.isDirectory(source)) {
+            throw new NotDirectoryException(source.toString());
+        }
+        Path absoluteSource = source.toAbsolutePath().normalize();
+        if (target.toAbsolutePath().normalize().startsWith(absoluteSource)) {
+            throw new IllegalArgumentException("Target is inside source: " + target);
+        }
+        List<CopyOption> list = Arrays.asList(options);
+        Result result = new Result();
+        Queue<Task> pending = new ConcurrentLinkedQueue<>();
+        List<Task> directories = new ArrayList<>();
+        Files.createDirectories(target);
+
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Path dst = target.resolve(source.relativize(dir).toString());
+                try {
+                    Files.createDirectories(dst);
+                } catch (IOException e) {
+                    if (dir.equals(source)) {
+                        throw e;
+                    }
+                    fail(e);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                directories.add(new Task(dir, dst, attrs));
+                result.directories.incrementAndGet();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path dst = target.resolve(source.relativize(file).toString());
+                if (attrs.isRegularFile()) {
+                    pending.add(new Task(file, dst, attrs));
+                } else if (attrs.isSymbolicLink()) {
+                    try {
+                        Files.copy(file, dst, LinkOption.NOFOLLOW_LINKS, StandardCopyOption.REPLACE_EXISTING);
+                        result.files.incrementAndGet();
+                    } catch (IOException e) {
+                        fail(e);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                // 遍历过程中被删除的文件直接忽略
+                if (!(exc instanceof NoSuchFileException)) {
+                    fail(exc);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            private void fail(IOException e) {
+                result.failed.incrementAndGet();
+                if (exceptionHandler != null) {
+                    exceptionHandler.accept(e);
+                }
+            }
+        });
+
+        int workers = Math.min(concurrency, pending.size());
+        CountDownLatch latch = new CountDownLatch(workers);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            try {
+                Task task;
+                while ((task = pending.poll()) != null) {
+                    try {
+                        if (IOUtils.copyFile(task.source, task.target, list, task.attributes)) {
+                            result.files.incrementAndGet();
+                            result.bytes.addAndGet(task.attributes.size());
+                        } else {
+                            result.skipped.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        result.failed.incrementAndGet();
+                        if (exceptionHandler != null) {
+                            try {
+                                exceptionHandler.accept(e);
+                            } catch (Throwable t) {
+                                t.addSuppressed(e);
+                                failure.compareAndSet(null, t);
+                            }
+                        }
+                    } catch (Throwable t) {
+                        // 不让工作线程退出，剩余的文件照常复制，结束后再抛给调用者
+                        result.failed.incrementAndGet();
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            } finally {
+                latch.countDown();
+            }
+        };
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                // 线程池拒绝时由当前线程完成剩余的工作
+                worker.run();
+            }
+        }
+        latch.await();
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new IllegalStateException(t);
+        }
+
+        if (list.contains(CopyOption.PRESERVE_ATTRIBUTES)) {
+            // 复制文件会修改目录的修改时间，所以最后从深到浅设置目录的属性
+            for (int i = directories.size() - 1; i >= 0; i--) {
+                Task task = directories.get(i);
+                try {
+                    IOUtils.copyAttributes(task.source, task.target, task.attributes);
+                } catch (IOException e) {
+                    result.failed.incrementAndGet();
+                    if (exceptionHandler != null) {
+                        exceptionHandler.accept(e);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static final class Task {
+        private final Path source;
+        private final Path target;
+        private final BasicFileAttributes attributes;
+
+        private Task(Path source, Path target, BasicFileAttributes attributes) {
+            this.source = source;
+            this.target = target;
+            this.attributes = attributes;
+        }
+    }
+
+    /**
+     * 目录复制的结果
+     */
+    public static final class Result {
+        private final AtomicLong directories = new AtomicLong();
+        private final AtomicLong files = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        private Result() {
+        }
+
+        /**
+         * 获取遍历到的目录数，包括源目录本身
+         *
+         * @return 目录数
+         */
+        public long directories() {
+            return directories.get();
+        }
+
+        /**
+         * 获取复制的文件数，包括符号链接
+         *
+         * @return 文件数
+         */
+        public long files() {
+            return files.get();
+        }
+
+        /**
+         * 获取因{@link CopyOption#SKIP_UNCHANGED}跳过的文件数
+         *
+         * @return 文件数
+         */
+        public long skipped() {
+            return skipped.get();
+        }
+
+        /**
+         * 获取出现异常的文件和目录数
+         *
+         * @return 数量
+         */
+        public long failed() {
+            return failed.get();
+        }
+
+        /**
+         * 获取复制的字节数，按遍历时的文件大小计算
+         *
+         * @return 字节数
+         */
+        public long bytes() {
+            return bytes.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "directories=" + directories +
+                    ", files=" + files +
+                    ", skipped=" + skipped +
+                    ", failed=" + failed +
+                    ", bytes=" + bytes +
+                    '}';
+        }
+    }
+}
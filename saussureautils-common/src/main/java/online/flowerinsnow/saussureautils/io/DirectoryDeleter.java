@@ -0,0 +1,318 @@
+package online.flowerinsnow.saussureautils.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>递归删除文件或目录，使用{@link Files#walkFileTree}迭代遍历，目录再深也不会栈溢出</p>
+ * <p>最大并发数为1时边遍历边删除；大于1时先遍历收集所有文件，在指定的线程池中并发删除，再从深到浅删除目录，适合很宽的目录</p>
+ * <p>删除失败不会中断其它文件的删除，所有异常都收集在{@link Result}中；遍历期间已被删除的文件会被忽略</p>
+ * <p>符号链接本身会被删除，不会跟随</p>
+ * <p>{@link #deleteInBackground(Path)}会先将目录原子地重命名到同级的临时名称，使原路径立即可用，再在线程池中删除</p>
+ */
+public class DirectoryDeleter {
+    private final Executor executor;
+    private final int concurrency;
+
+    /**
+     * @param executor 执行删除的线程池
+     * @param concurrency 最大并发数，为1时只在调用线程中删除
+     * @throws IllegalArgumentException 当最大并发数不是正数时抛出
+     */
+    public DirectoryDeleter(@NotNull Executor executor, int concurrency) throws IllegalArgumentException {
+        Objects.requireNonNull(executor);
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        this.executor = executor;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * 使用公共线程池，最大并发数为CPU核心数
+     */
+    public DirectoryDeleter() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 递归删除文件或目录，阻塞直到全部完成，路径不存在时什么也不做
+     *
+     * @param path 文件或目录
+     * @return 删除的结果
+     * @throws InterruptedException 当等待时线程被中断时抛出，已开始的删除会继续进行
+     */
+    public @NotNull Result delete(@NotNull Path path) throws InterruptedException {
+        Objects.requireNonNull(path);
+        Result result = new Result();
+        if (concurrency == 1) {
+            deleteSequentially(path, result);
+            return result;
+        }
+        List<Path> files = new ArrayList<>();
+        List<Path> directories = new ArrayList<>();
+        walk(path, new Visitor(result) {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                directories.add(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                files.add(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        deleteFiles(files, result);
+        for (int i = directories.size() - 1; i >= 0; i--) {
+            deleteOne(directories.get(i), result.directories, result);
+        }
+        return result;
+    }
+
+    /**
+     * <p>先将文件或目录原子地重命名为同级目录下的临时名称，再在线程池中删除，原路径在本方法返回时即可重新使用</p>
+     * <p>文件系统不支持原子重命名时直接在原位置删除</p>
+     *
+     * @param path 文件或目录
+     * @return 删除的结果，路径不存在时立即以空结果完成
+     * @throws IOException 当重命名失败时抛出
+     */
+    public @NotNull CompletableFuture<Result> deleteInBackground(@NotNull Path path) throws IOException {
+        Objects.requireNonNull(path);
+        if (Files.notExists(path, LinkOption.NOFOLLOW_LINKS)) {
+            return CompletableFuture.completedFuture(new Result());
+        }
+        Path target = path;
+        Path fileName = path.toAbsolutePath().getFileName();
+        if (fileName != null) {
+            Path trash = path.toAbsolutePath().resolveSibling("." + fileName + ".deleting-" + Long.toHexString(System.nanoTime()));
+            try {
+                Files.move(path, trash, StandardCopyOption.ATOMIC_MOVE);
+                target = trash;
+            } catch (AtomicMoveNotSupportedException ignored) {
+            }
+        }
+        Path toDelete = target;
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(delete(toDelete));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 在当前线程中边遍历边删除
+     */
+    static void deleteSequentially(Path path, Result result) {
+        walk(path, new Visitor(result) {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                deleteOne(file, result.files, result);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                super.postVisitDirectory(dir, exc);
+                deleteOne(dir, result.directories, result);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void walk(Path path, Visitor visitor) {
+        try {
+            Files.walkFileTree(path, visitor);
+        } catch (IOException e) {
+            // 访问方法都不会抛出异常，只是以防万一
+            visitor.result.errors.add(e);
+        }
+    }
+
+    /**
+     * 在线程池中并发删除文件，当前线程也参与删除，因此在线程池的线程中调用也不会死锁
+     */
+    private void deleteFiles(List<Path> files, Result result) throws InterruptedException {
+        int total = files.size();
+        if (total == 0) {
+            return;
+        }
+        Queue<Path> pending = new ConcurrentLinkedQueue<>(files);
+        AtomicInteger done = new AtomicInteger();
+        Object lock = new Object();
+        Runnable worker = () -> {
+            Path file;
+            while ((file = pending.poll()) != null) {
+                try {
+                    deleteOne(file, result.files, result);
+                } finally {
+                    // 即使抛出运行时异常也要计数，否则调用者会永远等待
+                    if (done.incrementAndGet() == total) {
+                        synchronized (lock) {
+                            lock.notifyAll();
+                        }
+                    }
+                }
+            }
+        };
+        int helpers = Math.min(concurrency, total) - 1;
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+        synchronized (lock) {
+            while (done.get() < total) {
+                lock.wait();
+            }
+        }
+    }
+
+    private static void deleteOne(Path path, AtomicLong counter, Result result) {
+        try {
+            Files.delete(path);
+            counter.incrementAndGet();
+        } catch (NoSuchFileException ignored) {
+        } catch (IOException e) {
+            result.errors.add(e);
+        }
+    }
+
+    /**
+     * 收集遍历异常的访问者，遍历期间已被删除的文件会被忽略
+     */
+    private static class Visitor extends SimpleFileVisitor<Path> {
+        protected final Result result;
+
+        private Visitor(Result result) {
+            this.result = result;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            if (!(exc instanceof NoSuchFileException)) {
+                result.errors.add(exc);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+            if (exc != null) {
+                result.errors.add(exc);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+    }
+
+    /**
+     * 递归删除的结果
+     */
+    public static final class Result {
+        private final AtomicLong files = new AtomicLong();
+        private final AtomicLong directories = new AtomicLong();
+        private final List<IOException> errors = Collections.synchronizedList(new ArrayList<>());
+
+        Result() {
+        }
+
+        /**
+         * 获取删除的文件数，包括符号链接
+         *
+         * @return 文件数
+         */
+        public long files() {
+            return files.get();
+        }
+
+        /**
+         * 获取删除的目录数
+         *
+         * @return 目录数
+         */
+        public long directories() {
+            return directories.get();
+        }
+
+        /**
+         * 获取删除或遍历时出现的所有异常
+         *
+         * @return 异常的不可变副本
+         */
+        public @NotNull List<IOException> errors() {
+            synchronized (errors) {
+                return Collections.unmodifiableList(new ArrayList<>(errors));
+            }
+        }
+
+        /**
+         * 是否全部删除成功
+         *
+         * @return 若没有出现异常，返回true
+         */
+        public boolean isSuccessful() {
+            return errors.isEmpty();
+        }
+
+        /**
+         * 若出现过异常，抛出第一个异常，其余异常作为被抑制的异常附加在其上
+         *
+         * @throws IOException 当出现过异常时抛出
+         */
+        public void rethrow() throws IOException {
+            List<IOException> copy = errors();
+            if (copy.isEmpty()) {
+                return;
+            }
+            IOException first = copy.get(0);
+            for (int i = 1; i < copy.size(); i++) {
+                first.addSuppressed(copy.get(i));
+            }
+            throw first;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "files=" + files +
+                    ", directories=" + directories +
+                    ", errors=" + errors.size() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package online.flowerinsnow.saussureautils.io;
+
+import online.flowerinsnow.saussureautils.lang.HexUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * <p>从底层输入流读取十六进制的ASCII字节，解码后返回原始数据，大小写均可</p>
+ * <p>只使用固定大小的缓冲区，可以解码任意大小的数据，例如：</p>
+ * <p>IOUtils.copy(new HexDecodingInputStream(Files.newInputStream(src)), Files.newOutputStream(dst), CopyOption.CLOSE_INPUT, CopyOption.CLOSE_OUTPUT);</p>
+ * <p>遇到非十六进制字符，或数据在两个字符之间结束时抛出{@link IOException}</p>
+ * <p>不支持标记，关闭本流时会关闭底层输入流</p>
+ */
+public class HexDecodingInputStream extends FilterInputStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private final byte[] single = new byte[1];
+    /**
+     * 上次读取剩下的不成对的字符数，只可能为0或1，该字符位于buf[0]
+     */
+    private int pending;
+    /**
+     * 已经解码的字符数，用于报告错误的位置
+     */
+    private long position;
+
+    /**
+     * @param in 底层输入流
+     */
+    public HexDecodingInputStream(@NotNull InputStream in) {
+        super(Objects.requireNonNull(in));
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(@NotNull byte[] b, int off, int len) throws IOException {
+        Objects.requireNonNull(b);
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        int want = Math.min(len, buf.length / 2) * 2;
+        while (true) {
+            int read = in.read(buf, pending, want - pending);
+            if (read == -1) {
+                if (pending != 0) {
+                    throw new IOException("Truncated hex input at character " + position);
+                }
+                return -1;
+            }
+            int available = pending + read;
+            int chars = available & ~1;
+            if (chars == 0) {
+                pending = available;
+                continue;
+            }
+            try {
+                HexUtils.parseHex(buf, 0, chars, b, off);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid hex input between character " + position + " and " + (position + chars), e);
+            }
+            position += chars;
+            pending = available - chars;
+            if (pending != 0) {
+                buf[0] = buf[chars];
+            }
+            return chars / 2;
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long remaining = n;
+        byte[] skipBuffer = new byte[(int) Math.min(BUFFER_SIZE / 2, Math.max(n, 0))];
+        while (remaining > 0) {
+            int read = read(skipBuffer, 0, (int) Math.min(skipBuffer.length, remaining));
+            if (read == -1) {
+                break;
+            }
+            remaining -= read;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (pending + in.available()) / 2;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
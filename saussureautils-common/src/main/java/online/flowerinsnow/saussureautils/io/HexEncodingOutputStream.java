@@ -0,0 +1,87 @@
+package online.flowerinsnow.saussureautils.io;
+
+import online.flowerinsnow.saussureautils.lang.HexUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * <p>将写入的数据编码为十六进制的ASCII字节，再写入到底层输出流</p>
+ * <p>只使用固定大小的缓冲区，可以编码任意大小的数据，例如：</p>
+ * <p>IOUtils.copy(Files.newInputStream(src), new HexEncodingOutputStream(Files.newOutputStream(dst)), CopyOption.CLOSE_INPUT, CopyOption.CLOSE_OUTPUT);</p>
+ * <p>关闭本流时会关闭底层输出流</p>
+ */
+public class HexEncodingOutputStream extends FilterOutputStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final boolean upperCase;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private final byte[] single = new byte[1];
+    private int count;
+
+    /**
+     * 使用小写字母编码
+     *
+     * @param out 底层输出流
+     */
+    public HexEncodingOutputStream(@NotNull OutputStream out) {
+        this(out, false);
+    }
+
+    /**
+     * @param out 底层输出流
+     * @param upperCase 是否使用大写字母
+     */
+    public HexEncodingOutputStream(@NotNull OutputStream out, boolean upperCase) {
+        super(Objects.requireNonNull(out));
+        this.upperCase = upperCase;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count + 2 > buf.length) {
+            flushBuffer();
+        }
+        single[0] = (byte) b;
+        count += HexUtils.hexToBytes(single, 0, 1, buf, count, upperCase);
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        Objects.requireNonNull(b);
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            int n = Math.min(len, (buf.length - count) / 2);
+            if (n == 0) {
+                flushBuffer();
+                continue;
+            }
+            count += HexUtils.hexToBytes(b, off, n, buf, count, upperCase);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * 写出缓冲区中已编码的数据，并刷新底层输出流
+     *
+     * @throws IOException 当出现IO异常时抛出
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+    }
+}
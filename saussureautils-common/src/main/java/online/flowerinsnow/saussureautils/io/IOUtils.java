@@ -5,20 +5,88 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 public abstract class IOUtils {
+    /**
+     * 复制时使用的默认缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * 自动调整时缓冲区的最大大小
+     */
+    private static final int ADAPTIVE_BUFFER_SIZE = 256 * 1024;
+    /**
+     * 指定{@link CopyOption#LARGE_BUFFER}时的缓冲区大小
+     */
+    private static final int LARGE_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * 指定{@link CopyOption#ATOMIC}时使用的写入器，同一目录下并发的复制共用目录fsync
+     */
+    static final AtomicFileWriter ATOMIC_WRITER = new AtomicFileWriter(true);
+
+    private static volatile BufferPool bufferPool = new SizeClassBufferPool();
+    private static volatile RateLimiter rateLimiter = new RateLimiter(32L * 1024 * 1024);
+
     private IOUtils() {
     }
 
+    /**
+     * 获取全局的缓冲区池，本类的复制方法和哈希相关的类都从中取出临时缓冲区
+     *
+     * @return 缓冲区池
+     */
+    public static @NotNull BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * 替换全局的缓冲区池，例如换成容量为0的{@link SizeClassBufferPool}以关闭缓存
+     *
+     * @param bufferPool 缓冲区池
+     */
+    public static void setBufferPool(@NotNull BufferPool bufferPool) {
+        IOUtils.bufferPool = Objects.requireNonNull(bufferPool);
+    }
+
+    /**
+     * 获取指定{@link CopyOption#THROTTLE}时共享的限速器，默认每秒32MB，可以通过{@link RateLimiter#setRate(long)}随时调整
+     *
+     * @return 限速器
+     */
+    public static @NotNull RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * 替换指定{@link CopyOption#THROTTLE}时共享的限速器，正在进行的复制仍使用原来的限速器
+     *
+     * @param rateLimiter 限速器
+     */
+    public static void setRateLimiter(@NotNull RateLimiter rateLimiter) {
+        IOUtils.rateLimiter = Objects.requireNonNull(rateLimiter);
+    }
+
     /**
      * 静默关闭可关闭的对象，无视一切异常
      *
@@ -36,7 +104,8 @@ public abstract class IOUtils {
     }
 
     /**
-     * 将输入流的数据全部写入输出流
+     * <p>将输入流的数据全部写入输出流</p>
+     * <p>输入流和输出流分别恰好是{@link FileInputStream}和{@link FileOutputStream}时，通过FileChannel.transferTo复制</p>
      *
      * @param in 输入流
      * @param out 输出流
@@ -47,12 +116,12 @@ public abstract class IOUtils {
         Objects.requireNonNull(in);
         Objects.requireNonNull(out);
         List<CopyOption> list = Arrays.asList(options);
-        int len;
-        byte[] bytes = new byte[1024];
         try {
-            while ((len = in.read(bytes)) != -1) {
-                out.write(bytes, 0, len);
+            if (zeroCopy(list) && in.getClass() == FileInputStream.class && out.getClass() == FileOutputStream.class) {
+                FileChannel src = ((FileInputStream) in).getChannel();
+                transfer(src, ((FileOutputStream) out).getChannel());
             }
+            copyBuffered(in, out, list, -1);
         } finally {
             if (list.contains(CopyOption.CLOSE_INPUT)) {
                 closeQuietly(in);
@@ -87,7 +156,8 @@ public abstract class IOUtils {
     }
 
     /**
-     * 将输入文件的数据全部写入输出流
+     * <p>将输入文件的数据全部写入输出流</p>
+     * <p>输出流恰好是{@link FileOutputStream}时通过FileChannel.transferTo复制，否则按文件大小选择缓冲区</p>
      *
      * @param in 输入文件
      * @param out 输出流
@@ -97,12 +167,20 @@ public abstract class IOUtils {
     public static void copy(@NotNull Path in, @NotNull OutputStream out, @NotNull CopyOption... options) throws IOException {
         Objects.requireNonNull(in);
         Objects.requireNonNull(out);
-        InputStream i = null;
+        List<CopyOption> list = Arrays.asList(options);
+        FileChannel src = null;
         try {
-            i = Files.newInputStream(in);
-            copy(i, out, options);
+            boolean regular = Files.isRegularFile(in);
+            src = FileChannel.open(in, StandardOpenOption.READ);
+            if (regular && zeroCopy(list) && out.getClass() == FileOutputStream.class) {
+                transfer(src, ((FileOutputStream) out).getChannel());
+            }
+            copyBuffered(Channels.newInputStream(src), out, list, regular ? remaining(src) : -1);
         } finally {
-            closeQuietly(i);
+            closeQuietly(src);
+            if (list.contains(CopyOption.CLOSE_OUTPUT)) {
+                closeQuietly(out);
+            }
         }
     }
 
@@ -170,13 +248,21 @@ public abstract class IOUtils {
     public static void copy(@NotNull InputStream in, @NotNull Path out, @NotNull CopyOption... options) throws IOException {
         Objects.requireNonNull(in);
         Objects.requireNonNull(out);
-        OutputStream o = null;
+        List<CopyOption> list = Arrays.asList(options);
+        FileChannel dst = null;
         try {
-            createFileIfNotExists(out);
-            o = Files.newOutputStream(out, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
-            copy(in, o, options);
+            if (list.contains(CopyOption.ATOMIC)) {
+                ATOMIC_WRITER.commit(out, channel -> writeStream(in, channel, list));
+            } else {
+                createFileIfNotExists(out);
+                dst = FileChannel.open(out, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                writeStream(in, dst, list);
+            }
         } finally {
-            closeQuietly(o);
+            closeQuietly(dst);
+            if (list.contains(CopyOption.CLOSE_INPUT)) {
+                closeQuietly(in);
+            }
         }
     }
 
@@ -234,10 +320,13 @@ public abstract class IOUtils {
     }
 
     /**
-     * 将输入流的数据全部写入输出文件
-     * 若目标文件不存在则创建，若目标文件存在则覆盖
+     * <p>将输入文件的数据全部写入输出文件</p>
+     * <p>若目标文件不存在则创建，若目标文件存在则覆盖</p>
+     * <p>目标文件不存在时使用Files.copy，存在时通过FileChannel.transferTo写入原文件，保留其权限和硬链接</p>
+     * <p>指定{@link CopyOption#ATOMIC}时总是写入临时文件再替换，目标的硬链接会被断开</p>
+     * <p>支持{@link CopyOption#SKIP_UNCHANGED}和{@link CopyOption#PRESERVE_ATTRIBUTES}</p>
      *
-     * @param in 输入流
+     * @param in 输入文件
      * @param out 输出文件
      * @param options 选项
      * @throws IOException 当出现异常时抛出
@@ -245,16 +334,7 @@ public abstract class IOUtils {
     public static void copy(@NotNull Path in, @NotNull Path out, @NotNull CopyOption... options) throws IOException {
         Objects.requireNonNull(in);
         Objects.requireNonNull(out);
-        InputStream i = null;
-        OutputStream o = null;
-        try {
-            i = Files.newInputStream(in);
-            createFileIfNotExists(out);
-            o = Files.newOutputStream(out, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
-            copy(i, o, options);
-        } finally {
-            IOUtils.closeQuietly(o, i);
-        }
+        copyFile(in, out, Arrays.asList(options), null);
     }
 
     /**
@@ -398,6 +478,313 @@ public abstract class IOUtils {
         }
     }
 
+    /**
+     * <p>将输入文件的数据全部写入通道，通过FileChannel.transferTo复制，目标为SocketChannel时在Linux上使用sendfile</p>
+     * <p>通道必须是阻塞模式的，不会关闭通道</p>
+     *
+     * @param in 输入文件
+     * @param out 输出通道
+     * @param options 选项
+     * @throws IOException 当出现异常时抛出
+     */
+    public static void copy(@NotNull Path in, @NotNull WritableByteChannel out, @NotNull CopyOption... options) throws IOException {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(out);
+        List<CopyOption> list = Arrays.asList(options);
+        FileChannel src = null;
+        try {
+            boolean regular = Files.isRegularFile(in);
+            src = FileChannel.open(in, StandardOpenOption.READ);
+            if (regular && zeroCopy(list)) {
+                transfer(src, out);
+            }
+            copyBuffered(Channels.newInputStream(src), Channels.newOutputStream(out), list, regular ? remaining(src) : -1);
+        } finally {
+            closeQuietly(src);
+            if (list.contains(CopyOption.CLOSE_OUTPUT)) {
+                closeQuietly(out);
+            }
+        }
+    }
+
+    /**
+     * 将输入文件的数据全部写入通道，并将异常交由异常处理器处理
+     *
+     * @param in 输入文件
+     * @param out 输出通道
+     * @param exceptionHandler 异常处理器，可为空
+     * @param options 选项
+     * @return 若本次执行没有出现异常，返回true
+     */
+    public static boolean copy(@NotNull Path in, @NotNull WritableByteChannel out, @Nullable IExceptionHandler<IOException> exceptionHandler, @NotNull CopyOption... options) {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(out);
+        try {
+            copy(in, out, options);
+            return true;
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * <p>将通道的数据全部写入输出文件，通过FileChannel.transferFrom复制</p>
+     * <p>若目标文件不存在则创建，若目标文件存在则覆盖</p>
+     * <p>通道必须是阻塞模式的，读到末尾为止</p>
+     *
+     * @param in 输入通道
+     * @param out 输出文件
+     * @param options 选项
+     * @throws IOException 当出现异常时抛出
+     */
+    public static void copy(@NotNull ReadableByteChannel in, @NotNull Path out, @NotNull CopyOption... options) throws IOException {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(out);
+        List<CopyOption> list = Arrays.asList(options);
+        FileChannel dst = null;
+        try {
+            if (list.contains(CopyOption.ATOMIC)) {
+                ATOMIC_WRITER.commit(out, channel -> writeChannel(in, channel, list));
+            } else {
+                createFileIfNotExists(out);
+                dst = FileChannel.open(out, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                writeChannel(in, dst, list);
+            }
+        } finally {
+            closeQuietly(dst);
+            if (list.contains(CopyOption.CLOSE_INPUT)) {
+                closeQuietly(in);
+            }
+        }
+    }
+
+    /**
+     * 将通道的数据全部写入输出文件，并将异常交由异常处理器处理
+     * 若目标文件不存在则创建，若目标文件存在则覆盖
+     *
+     * @param in 输入通道
+     * @param out 输出文件
+     * @param exceptionHandler 异常处理器，可为空
+     * @param options 选项
+     * @return 若本次执行没有出现异常，返回true
+     */
+    public static boolean copy(@NotNull ReadableByteChannel in, @NotNull Path out, @Nullable IExceptionHandler<IOException> exceptionHandler, @NotNull CopyOption... options) {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(out);
+        try {
+            copy(in, out, options);
+            return true;
+        } catch (IOException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 复制一个文件，供{@link #copy(Path, Path, CopyOption...)}和{@link DirectoryCopier}使用
+     *
+     * @param attributes 源文件的属性，为空时重新读取
+     * @return 若因{@link CopyOption#SKIP_UNCHANGED}跳过了复制，返回false
+     */
+    static boolean copyFile(Path in, Path out, List<CopyOption> options, @Nullable BasicFileAttributes attributes) throws IOException {
+        boolean skipUnchanged = options.contains(CopyOption.SKIP_UNCHANGED);
+        if ((skipUnchanged || options.contains(CopyOption.PRESERVE_ATTRIBUTES)) && attributes == null) {
+            attributes = Files.readAttributes(in, BasicFileAttributes.class);
+        }
+        if (skipUnchanged && isUnchanged(attributes, out)) {
+            return false;
+        }
+        boolean zeroCopy = zeroCopy(options);
+        boolean atomic = options.contains(CopyOption.ATOMIC);
+        boolean regular = attributes != null ? attributes.isRegularFile() : Files.isRegularFile(in);
+        boolean copied = false;
+        if (zeroCopy && !atomic && regular && Files.notExists(out)) {
+            Path parent = out.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try {
+                Files.copy(in, out);
+                copied = true;
+            } catch (FileAlreadyExistsException ignored) {
+            }
+        }
+        if (!copied) {
+            FileChannel src = null;
+            FileChannel dst = null;
+            try {
+                src = FileChannel.open(in, StandardOpenOption.READ);
+                FileChannel source = src;
+                if (atomic) {
+                    ATOMIC_WRITER.commit(out, channel -> writeFile(source, regular, channel, options));
+                } else {
+                    createFileIfNotExists(out);
+                    dst = FileChannel.open(out, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                    writeFile(source, regular, dst, options);
+                }
+            } finally {
+                IOUtils.closeQuietly(dst, src);
+            }
+        }
+        finishAttributes(in, out, options, attributes);
+        return true;
+    }
+
+    /**
+     * 目标文件是否存在且大小和修改时间都与源文件相同
+     */
+    static boolean isUnchanged(BasicFileAttributes attributes, Path out) throws IOException {
+        BasicFileAttributes target;
+        try {
+            target = Files.readAttributes(out, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        return target.isRegularFile() && target.size() == attributes.size() && target.lastModifiedTime().equals(attributes.lastModifiedTime());
+    }
+
+    /**
+     * 复制完成后按选项处理目标的属性
+     */
+    static void finishAttributes(Path in, Path out, List<CopyOption> options, BasicFileAttributes attributes) throws IOException {
+        if (options.contains(CopyOption.PRESERVE_ATTRIBUTES)) {
+            copyAttributes(in, out, attributes);
+        } else if (options.contains(CopyOption.SKIP_UNCHANGED)) {
+            // 下次比较时需要相同的修改时间
+            Files.setLastModifiedTime(out, attributes.lastModifiedTime());
+        }
+    }
+
+    /**
+     * 将修改时间、访问时间、创建时间和POSIX权限复制到目标，不支持的属性会被忽略
+     */
+    static void copyAttributes(Path in, Path out, BasicFileAttributes attributes) throws IOException {
+        BasicFileAttributeView view = Files.getFileAttributeView(out, BasicFileAttributeView.class);
+        if (view != null) {
+            view.setTimes(attributes.lastModifiedTime(), attributes.lastAccessTime(), attributes.creationTime());
+        }
+        PosixFileAttributeView posix = Files.getFileAttributeView(out, PosixFileAttributeView.class);
+        if (posix != null && Files.getFileAttributeView(in, PosixFileAttributeView.class) != null) {
+            posix.setPermissions(Files.getPosixFilePermissions(in));
+        }
+    }
+
+    private static void writeStream(InputStream in, FileChannel dst, List<CopyOption> options) throws IOException {
+        if (zeroCopy(options) && in.getClass() == FileInputStream.class) {
+            transfer(((FileInputStream) in).getChannel(), dst);
+        }
+        copyBuffered(in, Channels.newOutputStream(dst), options, -1);
+    }
+
+    private static void writeChannel(ReadableByteChannel in, FileChannel dst, List<CopyOption> options) throws IOException {
+        if (!zeroCopy(options)) {
+            copyBuffered(Channels.newInputStream(in), Channels.newOutputStream(dst), options, -1);
+        } else {
+            long position = 0;
+            long n;
+            while ((n = dst.transferFrom(in, position, Long.MAX_VALUE - position)) > 0) {
+                position += n;
+            }
+        }
+    }
+
+    private static void writeFile(FileChannel src, boolean regular, FileChannel dst, List<CopyOption> options) throws IOException {
+        if (regular && zeroCopy(options)) {
+            transfer(src, dst);
+        }
+        copyBuffered(Channels.newInputStream(src), Channels.newOutputStream(dst), options, regular ? remaining(src) : -1);
+    }
+
+    /**
+     * 获取文件从当前位置到末尾的字节数，用作缓冲区大小的提示；管道等无法定位的源或大小为0的特殊文件返回-1
+     */
+    static long remaining(FileChannel src) {
+        try {
+            long remaining = src.size() - src.position();
+            return remaining > 0 ? remaining : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 是否可以使用FileChannel.transferTo等不经过缓冲区的复制，限速时必须经过缓冲区
+     */
+    static boolean zeroCopy(List<CopyOption> options) {
+        return !options.contains(CopyOption.NO_ZERO_COPY) && !options.contains(CopyOption.THROTTLE);
+    }
+
+    /**
+     * 通过FileChannel.transferTo将文件从当前位置到当前末尾的数据写入通道，并移动文件的位置，
+     * 中途返回0时停止，剩余的数据由调用者经缓冲区复制；管道等无法定位的源什么也不做
+     */
+    private static void transfer(FileChannel src, WritableByteChannel dst) throws IOException {
+        long position;
+        long size;
+        try {
+            position = src.position();
+            size = src.size();
+        } catch (IOException e) {
+            // 管道等无法定位的源，全部交给缓冲区复制
+            return;
+        }
+        while (position < size) {
+            long n = src.transferTo(position, size - position, dst);
+            if (n <= 0) {
+                break;
+            }
+            position += n;
+        }
+        src.position(position);
+    }
+
+    /**
+     * 经缓冲区复制到输入流末尾
+     *
+     * @param sizeHint 剩余数据的大小，未知时为-1
+     */
+    private static void copyBuffered(InputStream in, OutputStream out, List<CopyOption> options, long sizeHint) throws IOException {
+        boolean adaptive = false;
+        int size;
+        if (options.contains(CopyOption.SMALL_BUFFER)) {
+            size = BUFFER_SIZE;
+        } else if (options.contains(CopyOption.LARGE_BUFFER)) {
+            size = LARGE_BUFFER_SIZE;
+        } else if (sizeHint >= 0) {
+            size = (int) Math.max(1, Math.min(sizeHint, ADAPTIVE_BUFFER_SIZE));
+        } else {
+            size = BUFFER_SIZE;
+            adaptive = true;
+        }
+        RateLimiter limiter = options.contains(CopyOption.THROTTLE) ? rateLimiter : null;
+        BufferPool pool = bufferPool;
+        byte[] bytes = pool.acquire(size);
+        try {
+            // 限速时每次读取不超过突发量，否则每次都会透支，速度忽快忽慢
+            int chunk = limiter == null ? bytes.length : (int) Math.min(bytes.length, limiter.getBurst());
+            int len;
+            while ((len = in.read(bytes, 0, chunk)) != -1) {
+                if (limiter != null) {
+                    ThrottledInputStream.acquire(limiter, len);
+                }
+                out.write(bytes, 0, len);
+                if (adaptive && limiter == null && len == bytes.length && bytes.length < ADAPTIVE_BUFFER_SIZE) {
+                    byte[] larger = pool.acquire(bytes.length << 1);
+                    pool.release(bytes);
+                    bytes = larger;
+                    chunk = bytes.length;
+                }
+            }
+        } finally {
+            pool.release(bytes);
+        }
+    }
+
     /**
      * 如果文件不存在，则创建
      *
@@ -470,31 +857,24 @@ public abstract class IOUtils {
     }
 
     /**
-     * 递归删除文件或目录
+     * <p>递归删除文件或目录，尽力而为，无法删除的文件会被忽略</p>
+     * <p>通过{@link DirectoryDeleter}迭代遍历，不会因目录过深而栈溢出；需要错误报告或并发删除时请直接使用{@link DirectoryDeleter}</p>
      *
      * @param file 文件或目录
      */
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     public static void delete(@NotNull File file) {
         Objects.requireNonNull(file);
-        if (file.isFile()) {
-            file.delete();
-        } else if (file.isDirectory()) {
-            //noinspection ConstantConditions
-            for (File f : file.listFiles()) {
-                delete(f);
-            }
-            file.delete();
-        }
+        delete(file.toPath());
     }
 
     /**
-     * 递归删除文件或目录
+     * <p>递归删除文件或目录，尽力而为，无法删除的文件会被忽略</p>
+     * <p>通过{@link DirectoryDeleter}迭代遍历，不会因目录过深而栈溢出；需要错误报告或并发删除时请直接使用{@link DirectoryDeleter}</p>
      *
      * @param path 文件或目录
      */
     public static void delete(@NotNull Path path) {
         Objects.requireNonNull(path);
-        delete(path.toFile());
+        DirectoryDeleter.deleteSequentially(path, new DirectoryDeleter.Result());
     }
 }
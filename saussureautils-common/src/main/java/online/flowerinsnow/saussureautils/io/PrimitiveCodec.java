@@ -0,0 +1,247 @@
+package online.flowerinsnow.saussureautils.io;
+
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>在byte数组上直接读写基本类型、变长整数和UTF-8字符串，供字节数组流使用</p>
+ * <p>调用者负责保证写入时空间足够，读取的方法会检查剩余数据是否足够</p>
+ * <p>变长整数使用与Protocol Buffers相同的格式，每个字节的低7位为数据，最高位表示后面还有字节，低位在前</p>
+ */
+final class PrimitiveCodec {
+    /**
+     * int变长编码的最大字节数
+     */
+    static final int MAX_VAR_INT_LENGTH = 5;
+    /**
+     * long变长编码的最大字节数
+     */
+    static final int MAX_VAR_LONG_LENGTH = 10;
+
+    private PrimitiveCodec() {
+    }
+
+    static int putShort(byte[] buf, int pos, short v, boolean bigEndian) {
+        if (bigEndian) {
+            buf[pos] = (byte) (v >>> 8);
+            buf[pos + 1] = (byte) v;
+        } else {
+            buf[pos] = (byte) v;
+            buf[pos + 1] = (byte) (v >>> 8);
+        }
+        return pos + 2;
+    }
+
+    static int putInt(byte[] buf, int pos, int v, boolean bigEndian) {
+        if (bigEndian) {
+            buf[pos] = (byte) (v >>> 24);
+            buf[pos + 1] = (byte) (v >>> 16);
+            buf[pos + 2] = (byte) (v >>> 8);
+            buf[pos + 3] = (byte) v;
+        } else {
+            buf[pos] = (byte) v;
+            buf[pos + 1] = (byte) (v >>> 8);
+            buf[pos + 2] = (byte) (v >>> 16);
+            buf[pos + 3] = (byte) (v >>> 24);
+        }
+        return pos + 4;
+    }
+
+    static int putLong(byte[] buf, int pos, long v, boolean bigEndian) {
+        if (bigEndian) {
+            putInt(buf, pos, (int) (v >>> 32), true);
+            putInt(buf, pos + 4, (int) v, true);
+        } else {
+            putInt(buf, pos, (int) v, false);
+            putInt(buf, pos + 4, (int) (v >>> 32), false);
+        }
+        return pos + 8;
+    }
+
+    static int putVarInt(byte[] buf, int pos, int v) {
+        while ((v & ~0x7F) != 0) {
+            buf[pos++] = (byte) (v & 0x7F | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return pos;
+    }
+
+    static int putVarLong(byte[] buf, int pos, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) (v & 0x7F | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return pos;
+    }
+
+    static int zigZag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    static long zigZag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    static int unZigZag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static long unZigZag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * 计算字符串编码为UTF-8后的字节数，不成对的代理字符按{@link String#getBytes(java.nio.charset.Charset)}的规则替换为'?'
+     */
+    static int utf8Length(String s) {
+        int len = s.length();
+        int bytes = len;
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    // 不成对的代理字符替换为1个字节的'?'
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 将字符串编码为UTF-8写入，结果与{@link String#getBytes(java.nio.charset.Charset)}相同
+     */
+    static int putUTF8(byte[] buf, int pos, String s) {
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | c >> 6);
+                buf[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | cp >> 18);
+                buf[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                buf[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                buf[pos++] = (byte) (0x80 | cp & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = '?';
+            } else {
+                buf[pos++] = (byte) (0xE0 | c >> 12);
+                buf[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buf[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return pos;
+    }
+
+    static void require(int pos, int count, int n) throws BufferUnderflowException {
+        if (count - pos < n) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    static short getShort(byte[] buf, int pos, boolean bigEndian) {
+        return bigEndian
+                ? (short) (buf[pos] << 8 | buf[pos + 1] & 0xFF)
+                : (short) (buf[pos + 1] << 8 | buf[pos] & 0xFF);
+    }
+
+    static int getInt(byte[] buf, int pos, boolean bigEndian) {
+        return bigEndian
+                ? buf[pos] << 24 | (buf[pos + 1] & 0xFF) << 16 | (buf[pos + 2] & 0xFF) << 8 | buf[pos + 3] & 0xFF
+                : buf[pos + 3] << 24 | (buf[pos + 2] & 0xFF) << 16 | (buf[pos + 1] & 0xFF) << 8 | buf[pos] & 0xFF;
+    }
+
+    static long getLong(byte[] buf, int pos, boolean bigEndian) {
+        return bigEndian
+                ? (long) getInt(buf, pos, true) << 32 | getInt(buf, pos + 4, true) & 0xFFFFFFFFL
+                : (long) getInt(buf, pos + 4, false) << 32 | getInt(buf, pos, false) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * 从流的当前位置读取变长int，失败时流的位置不变
+     *
+     * @throws BufferUnderflowException 当数据在变长整数中间结束时抛出
+     * @throws IllegalArgumentException 当变长整数超过5个字节时抛出
+     */
+    static int readVarInt(ByteArrayReadStream in) throws BufferUnderflowException, IllegalArgumentException {
+        byte[] buf = in.buf;
+        int pos = in.pos;
+        int result = 0;
+        for (int shift = 0; shift < 7 * MAX_VAR_INT_LENGTH; shift += 7) {
+            require(pos, in.count, 1);
+            int b = buf[pos++];
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                in.pos = pos;
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+
+    /**
+     * 从流的当前位置读取变长long，失败时流的位置不变
+     *
+     * @throws BufferUnderflowException 当数据在变长整数中间结束时抛出
+     * @throws IllegalArgumentException 当变长整数超过10个字节时抛出
+     */
+    static long readVarLong(ByteArrayReadStream in) throws BufferUnderflowException, IllegalArgumentException {
+        byte[] buf = in.buf;
+        int pos = in.pos;
+        long result = 0;
+        for (int shift = 0; shift < 7 * MAX_VAR_LONG_LENGTH; shift += 7) {
+            require(pos, in.count, 1);
+            int b = buf[pos++];
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                in.pos = pos;
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varlong.");
+    }
+
+    /**
+     * 在流的末尾写入变长字节数和UTF-8编码的字符串，直接编码到内部缓冲区中
+     */
+    static void writeUTF8(ByteArrayWriteStream out, String s) {
+        int len = utf8Length(s);
+        out.ensureCapacity(out.count + MAX_VAR_INT_LENGTH + len);
+        int pos = putVarInt(out.buf, out.count, len);
+        out.count = putUTF8(out.buf, pos, s);
+    }
+
+    /**
+     * 从流的当前位置读取{@link #writeUTF8(ByteArrayWriteStream, String)}写入的字符串，失败时流的位置不变
+     *
+     * @throws BufferUnderflowException 当数据不足时抛出
+     * @throws IllegalArgumentException 当长度不合法时抛出
+     */
+    static String readUTF8(ByteArrayReadStream in) throws BufferUnderflowException, IllegalArgumentException {
+        int start = in.pos;
+        int len = readVarInt(in);
+        if (len < 0) {
+            in.pos = start;
+            throw new IllegalArgumentException("Negative string length: " + len);
+        }
+        if (in.count - in.pos < len) {
+            in.pos = start;
+            throw new BufferUnderflowException();
+        }
+        String s = new String(in.buf, in.pos, len, StandardCharsets.UTF_8);
+        in.pos += len;
+        return s;
+    }
+}
@@ -0,0 +1,209 @@
+package online.flowerinsnow.saussureautils.io;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>按字节数限速的令牌桶，可以在多个并发的复制之间共享，使它们的总速度不超过限制</p>
+ * <p>令牌以固定的速率补充，空闲时最多积累突发量那么多的令牌；获取的字节数超过现有令牌时允许透支，
+ * 调用者睡眠到透支还清为止，之后的获取者需要先等前面的透支还清，因此大致按到达顺序排队</p>
+ * <p>速率可以随时通过{@link #setRate(long)}调整，并提供当前和平均吞吐量用于观察限速的效果，例如：</p>
+ * <p>RateLimiter limiter = new RateLimiter(20L * 1024 * 1024);</p>
+ * <p>IOUtils.copy(new ThrottledInputStream(Files.newInputStream(world), limiter), backupOut, CopyOption.CLOSE_INPUT);</p>
+ * <p>本类是线程安全的</p>
+ */
+public class RateLimiter {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * 统计当前吞吐量的窗口长度
+     */
+    private static final long WINDOW_NANOS = NANOS_PER_SECOND;
+
+    private long rate;
+    private long burst;
+    private double tokens;
+    private long lastRefillNanos;
+
+    private long totalBytes;
+    private long statisticsStartNanos;
+    private long windowStartNanos;
+    private long windowBytes;
+    private long previousWindowBytes;
+
+    /**
+     * 突发量为0.1秒的量
+     *
+     * @param bytesPerSecond 每秒允许的字节数
+     * @throws IllegalArgumentException 当速率不是正数时抛出
+     */
+    public RateLimiter(long bytesPerSecond) throws IllegalArgumentException {
+        this(bytesPerSecond, defaultBurst(bytesPerSecond));
+    }
+
+    /**
+     * @param bytesPerSecond 每秒允许的字节数
+     * @param burst 空闲时最多积累的字节数
+     * @throws IllegalArgumentException 当速率或突发量不是正数时抛出
+     */
+    public RateLimiter(long bytesPerSecond, long burst) throws IllegalArgumentException {
+        check(bytesPerSecond, burst);
+        this.rate = bytesPerSecond;
+        this.burst = burst;
+        this.tokens = burst;
+        long now = System.nanoTime();
+        this.lastRefillNanos = now;
+        this.statisticsStartNanos = now;
+        this.windowStartNanos = now;
+    }
+
+    /**
+     * 获取指定数量的字节，令牌不足时阻塞
+     *
+     * @param bytes 字节数
+     * @throws IllegalArgumentException 当字节数为负数时抛出
+     * @throws InterruptedException 当等待时线程被中断时抛出，已获取的字节不会归还
+     */
+    public void acquire(long bytes) throws IllegalArgumentException, InterruptedException {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Bytes must not be negative: " + bytes);
+        }
+        if (bytes == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            tokens -= bytes;
+            roll(now);
+            windowBytes += bytes;
+            totalBytes += bytes;
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens * NANOS_PER_SECOND / rate);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * 获取每秒允许的字节数
+     *
+     * @return 速率
+     */
+    public synchronized long getRate() {
+        return rate;
+    }
+
+    /**
+     * 获取空闲时最多积累的字节数，限速的流每次读写的字节数也不超过这个值
+     *
+     * @return 突发量
+     */
+    public synchronized long getBurst() {
+        return burst;
+    }
+
+    /**
+     * 调整速率，突发量随之调整为0.1秒的量，已透支的字节按新速率偿还
+     *
+     * @param bytesPerSecond 每秒允许的字节数
+     * @throws IllegalArgumentException 当速率不是正数时抛出
+     */
+    public void setRate(long bytesPerSecond) throws IllegalArgumentException {
+        setRate(bytesPerSecond, defaultBurst(bytesPerSecond));
+    }
+
+    /**
+     * 调整速率和突发量，已透支的字节按新速率偿还
+     *
+     * @param bytesPerSecond 每秒允许的字节数
+     * @param burst 空闲时最多积累的字节数
+     * @throws IllegalArgumentException 当速率或突发量不是正数时抛出
+     */
+    public synchronized void setRate(long bytesPerSecond, long burst) throws IllegalArgumentException {
+        check(bytesPerSecond, burst);
+        refill(System.nanoTime());
+        this.rate = bytesPerSecond;
+        this.burst = burst;
+        this.tokens = Math.min(tokens, burst);
+    }
+
+    /**
+     * 获取统计开始以来获取的总字节数
+     *
+     * @return 字节数
+     */
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 获取最近一秒内获取的字节数，即当前的吞吐量
+     *
+     * @return 每秒字节数
+     */
+    public synchronized double currentBytesPerSecond() {
+        long now = System.nanoTime();
+        roll(now);
+        double fraction = (double) (now - windowStartNanos) / WINDOW_NANOS;
+        // 上一个窗口按仍在最近一秒内的比例计入
+        return previousWindowBytes * (1 - fraction) + windowBytes;
+    }
+
+    /**
+     * 获取统计开始以来的平均吞吐量
+     *
+     * @return 每秒字节数
+     */
+    public synchronized double averageBytesPerSecond() {
+        long elapsed = System.nanoTime() - statisticsStartNanos;
+        return elapsed <= 0 ? 0 : (double) totalBytes * NANOS_PER_SECOND / elapsed;
+    }
+
+    /**
+     * 清空吞吐量统计，例如调整速率后重新观察，不影响令牌
+     */
+    public synchronized void resetStatistics() {
+        long now = System.nanoTime();
+        totalBytes = 0;
+        statisticsStartNanos = now;
+        windowStartNanos = now;
+        windowBytes = 0;
+        previousWindowBytes = 0;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (double) (now - lastRefillNanos) * rate / NANOS_PER_SECOND);
+        lastRefillNanos = now;
+    }
+
+    private void roll(long now) {
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= WINDOW_NANOS) {
+            previousWindowBytes = elapsed < 2 * WINDOW_NANOS ? windowBytes : 0;
+            windowStartNanos += elapsed - elapsed % WINDOW_NANOS;
+            windowBytes = 0;
+        }
+    }
+
+    private static long defaultBurst(long bytesPerSecond) {
+        return Math.max(1, bytesPerSecond / 10);
+    }
+
+    private static void check(long bytesPerSecond, long burst) throws IllegalArgumentException {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + bytesPerSecond);
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive: " + burst);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RateLimiter{" +
+                "rate=" + rate +
+                ", burst=" + burst +
+                ", totalBytes=" + totalBytes +
+                '}';
+    }
+}
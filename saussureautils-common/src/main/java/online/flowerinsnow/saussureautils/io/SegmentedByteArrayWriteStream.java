@@ -0,0 +1,231 @@
+package online.flowerinsnow.saussureautils.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>分段的字节数组输出流，数据保存在一组固定大小的块中</p>
+ * <p>与{@link ByteArrayWriteStream}不同，空间不足时只追加一个新块，不会复制已有的数据，
+ * 因此构建大量数据时不会产生成倍的复制和内存峰值，总大小也不受数组长度的限制，可以超过2GB</p>
+ * <p>只有调用{@link #toByteArray()}时才会复制出连续的数组，
+ * 写出到通道时使用{@link GatheringByteChannel}一次提交所有块</p>
+ * <p>本类不是线程安全的</p>
+ */
+public class SegmentedByteArrayWriteStream extends OutputStream {
+    /**
+     * 默认的块大小
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final int chunkSize;
+    /**
+     * 已分配的块，{@link #reset()}后会被重复使用
+     */
+    private final List<byte[]> chunks = new ArrayList<>();
+    /**
+     * 当前正在写入的块的下标，没有任何块时为-1
+     */
+    private int index = -1;
+    private byte[] current;
+    /**
+     * 当前块中已写入的字节数
+     */
+    private int count;
+
+    /**
+     * 使用默认的块大小
+     */
+    public SegmentedByteArrayWriteStream() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize 块大小
+     * @throws IllegalArgumentException 当块大小不是正数时抛出
+     */
+    public SegmentedByteArrayWriteStream(int chunkSize) throws IllegalArgumentException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void write(int b) {
+        if (current == null || count == chunkSize) {
+            nextChunk();
+        }
+        current[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (current == null || count == chunkSize) {
+                nextChunk();
+            }
+            int n = Math.min(len, chunkSize - count);
+            System.arraycopy(b, off, current, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * 获取已写入的字节数
+     *
+     * @return 已写入的字节数
+     */
+    public long size() {
+        return index < 0 ? 0 : (long) index * chunkSize + count;
+    }
+
+    /**
+     * 获取块大小
+     *
+     * @return 块大小
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 丢弃已写入的数据，已分配的块会被保留并重复使用
+     */
+    public void reset() {
+        index = -1;
+        current = null;
+        count = 0;
+    }
+
+    /**
+     * 将全部数据写入到输出流中
+     *
+     * @param out 输出流
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        for (int i = 0; i < index; i++) {
+            out.write(chunks.get(i), 0, chunkSize);
+        }
+        if (index >= 0) {
+            out.write(current, 0, count);
+        }
+    }
+
+    /**
+     * 将全部数据写入到通道中，若通道是{@link GatheringByteChannel}则一次提交所有块
+     *
+     * @param channel 目标通道
+     * @throws IOException 当出现IO异常时抛出
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer[] buffers = buffers(false);
+        if (channel instanceof GatheringByteChannel) {
+            GatheringByteChannel gathering = (GatheringByteChannel) channel;
+            int first = 0;
+            while (first < buffers.length) {
+                gathering.write(buffers, first, buffers.length - first);
+                while (first < buffers.length && !buffers[first].hasRemaining()) {
+                    first++;
+                }
+            }
+        } else {
+            for (ByteBuffer buffer : buffers) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取每个块中数据的只读视图，不会复制数据
+     *
+     * @return 按顺序排列的只读缓冲区
+     */
+    public ByteBuffer[] toByteBuffers() {
+        return buffers(true);
+    }
+
+    /**
+     * 创建一个按顺序读取全部数据的输入流，与本流共享所有块，不会复制
+     * 在读取完毕之前不应再写入本流或调用{@link #reset()}
+     *
+     * @return 输入流
+     */
+    public InputStream toReadStream() {
+        List<InputStream> streams = new ArrayList<>(index + 1);
+        for (int i = 0; i < index; i++) {
+            streams.add(new UnsynchronizedByteArrayReadStream(chunks.get(i), 0, chunkSize));
+        }
+        if (index >= 0) {
+            streams.add(new UnsynchronizedByteArrayReadStream(current, 0, count));
+        }
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    /**
+     * 将全部数据复制到一个新的连续数组中
+     *
+     * @return 全部数据
+     * @throws OutOfMemoryError 当数据超过数组的最大长度时抛出
+     */
+    public byte[] toByteArray() throws OutOfMemoryError {
+        long size = size();
+        if (size > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Required array size too large: " + size);
+        }
+        byte[] result = new byte[(int) size];
+        int pos = 0;
+        for (int i = 0; i < index; i++) {
+            System.arraycopy(chunks.get(i), 0, result, pos, chunkSize);
+            pos += chunkSize;
+        }
+        if (index >= 0) {
+            System.arraycopy(current, 0, result, pos, count);
+        }
+        return result;
+    }
+
+    /**
+     * 关闭本流没有任何效果，关闭后仍然可以调用本类的方法
+     */
+    @Override
+    public void close() {
+    }
+
+    private void nextChunk() {
+        index++;
+        if (index < chunks.size()) {
+            current = chunks.get(index);
+        } else {
+            current = new byte[chunkSize];
+            chunks.add(current);
+        }
+        count = 0;
+    }
+
+    private ByteBuffer[] buffers(boolean readOnly) {
+        ByteBuffer[] buffers = new ByteBuffer[index + 1];
+        for (int i = 0; i <= index; i++) {
+            ByteBuffer buffer = ByteBuffer.wrap(chunks.get(i), 0, i == index ? count : chunkSize);
+            buffers[i] = readOnly ? buffer.asReadOnlyBuffer() : buffer;
+        }
+        return buffers;
+    }
+}
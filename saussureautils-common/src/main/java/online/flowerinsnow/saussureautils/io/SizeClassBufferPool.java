@@ -0,0 +1,143 @@
+package online.flowerinsnow.saussureautils.io;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>按大小分级的缓冲区池，每一级的缓冲区长度为2的幂，从{@link #MIN_SIZE}到最大长度</p>
+ * <p>每一级是一个有界的无锁栈，取出和归还都只使用CAS，不会阻塞</p>
+ * <p>超过最大长度的请求不会被缓存，每一级最多保存指定数量的缓冲区，因此池占用的内存是有上限的</p>
+ * <p>本类是线程安全的</p>
+ */
+public class SizeClassBufferPool implements BufferPool {
+    /**
+     * 最小一级的缓冲区长度
+     */
+    public static final int MIN_SIZE = 1024;
+    /**
+     * 默认的最大缓冲区长度
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024 * 1024;
+    /**
+     * 默认每一级保存的缓冲区数量
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+
+    private final int maxSize;
+    private final int capacity;
+    private final AtomicReferenceArray<byte[]>[] classes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 使用默认的最大长度和容量
+     */
+    public SizeClassBufferPool() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param maxSize 最大缓冲区长度，会向上取整到2的幂
+     * @param capacity 每一级保存的缓冲区数量，为0时不缓存任何缓冲区，只统计次数
+     * @throws IllegalArgumentException 当最大长度小于{@link #MIN_SIZE}或大于2的30次方，或容量为负数时抛出
+     */
+    public SizeClassBufferPool(int maxSize, int capacity) throws IllegalArgumentException {
+        if (maxSize < MIN_SIZE || maxSize > 1 << 30) {
+            throw new IllegalArgumentException("Max size out of range: " + maxSize);
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + capacity);
+        }
+        this.maxSize = roundUp(maxSize);
+        this.capacity = capacity;
+        this.classes = newClasses(indexOf(this.maxSize) + 1);
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new AtomicReferenceArray<>(capacity);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AtomicReferenceArray<byte[]>[] newClasses(int length) {
+        return (AtomicReferenceArray<byte[]>[]) new AtomicReferenceArray<?>[length];
+    }
+
+    @Override
+    public byte[] acquire(int minLength) throws IllegalArgumentException {
+        if (minLength < 0) {
+            throw new IllegalArgumentException("Negative length: " + minLength);
+        }
+        if (minLength > maxSize) {
+            misses.increment();
+            return new byte[minLength];
+        }
+        int size = Math.max(MIN_SIZE, roundUp(minLength));
+        AtomicReferenceArray<byte[]> slots = classes[indexOf(size)];
+        for (int i = 0; i < capacity; i++) {
+            byte[] buffer = slots.get(i);
+            if (buffer != null && slots.compareAndSet(i, buffer, null)) {
+                hits.increment();
+                return buffer;
+            }
+        }
+        misses.increment();
+        return new byte[size];
+    }
+
+    @Override
+    public void release(byte[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int length = buffer.length;
+        // 只接受恰好属于某一级的缓冲区，保证取出的缓冲区长度不小于请求的长度
+        if (length < MIN_SIZE || length > maxSize || Integer.bitCount(length) != 1) {
+            return;
+        }
+        AtomicReferenceArray<byte[]> slots = classes[indexOf(length)];
+        for (int i = 0; i < capacity; i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public long hits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * 获取最大缓冲区长度
+     *
+     * @return 最大缓冲区长度
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 丢弃池中所有的缓冲区，不会重置统计次数
+     */
+    public void clear() {
+        for (AtomicReferenceArray<byte[]> slots : classes) {
+            for (int i = 0; i < capacity; i++) {
+                slots.set(i, null);
+            }
+        }
+    }
+
+    private static int roundUp(int length) {
+        return length <= 1 ? 1 : Integer.highestOneBit(length - 1) << 1;
+    }
+
+    private static int indexOf(int size) {
+        return Integer.numberOfTrailingZeros(size) - MIN_SHIFT;
+    }
+}
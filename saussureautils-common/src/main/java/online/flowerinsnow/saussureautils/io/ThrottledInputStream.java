@@ -0,0 +1,59 @@
+package online.flowerinsnow.saussureautils.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+
+/**
+ * <p>按{@link RateLimiter}限速读取底层输入流，多个流共享同一个限速器时总速度不超过限制</p>
+ * <p>每次读取的字节数不超过限速器的突发量，读到数据后再获取相应的令牌；跳过的字节不计入限速</p>
+ * <p>关闭本流时会关闭底层输入流</p>
+ */
+public class ThrottledInputStream extends FilterInputStream {
+    private final RateLimiter limiter;
+
+    /**
+     * @param in 底层输入流
+     * @param limiter 限速器
+     */
+    public ThrottledInputStream(@NotNull InputStream in, @NotNull RateLimiter limiter) {
+        super(Objects.requireNonNull(in));
+        this.limiter = Objects.requireNonNull(limiter);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b != -1) {
+            acquire(limiter, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(@NotNull byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, (int) Math.min(len, limiter.getBurst()));
+        if (n > 0) {
+            acquire(limiter, n);
+        }
+        return n;
+    }
+
+    /**
+     * 获取令牌，将中断转换为{@link InterruptedIOException}并保留中断状态
+     */
+    static void acquire(RateLimiter limiter, long bytes) throws InterruptedIOException {
+        try {
+            limiter.acquire(bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ex = new InterruptedIOException("Interrupted while throttling");
+            ex.initCause(e);
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package online.flowerinsnow.saussureautils.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * <p>按{@link RateLimiter}限速写入底层输出流，多个流共享同一个限速器时总速度不超过限制</p>
+ * <p>大块的数据按限速器的突发量分段，每段先获取令牌再写入，使写入均匀地分布在时间上</p>
+ * <p>关闭本流时会关闭底层输出流</p>
+ */
+public class ThrottledOutputStream extends FilterOutputStream {
+    private final RateLimiter limiter;
+
+    /**
+     * @param out 底层输出流
+     * @param limiter 限速器
+     */
+    public ThrottledOutputStream(@NotNull OutputStream out, @NotNull RateLimiter limiter) {
+        super(Objects.requireNonNull(out));
+        this.limiter = Objects.requireNonNull(limiter);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ThrottledInputStream.acquire(limiter, 1);
+        out.write(b);
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        Objects.requireNonNull(b);
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            int n = (int) Math.min(len, limiter.getBurst());
+            ThrottledInputStream.acquire(limiter, n);
+            out.write(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package online.flowerinsnow.saussureautils.io;
+
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * <p>不加锁的{@link ByteArrayReadStream}，行为与其完全相同</p>
+ * <p>省去了每次读取时进入和退出监视器的开销，在JDK 15以后偏向锁被默认关闭，单字节读取的差距尤其明显</p>
+ * <p>本类不是线程安全的，只能在一个线程中使用，或由调用者自行同步</p>
+ */
+public class UnsynchronizedByteArrayReadStream extends ByteArrayReadStream {
+    /**
+     * Creates an <code>UnsynchronizedByteArrayReadStream</code>
+     * so that it  uses <code>buf</code> as its
+     * buffer array.
+     * The buffer array is not copied.
+     *
+     * @param   buf   the input buffer.
+     */
+    public UnsynchronizedByteArrayReadStream(byte[] buf) {
+        super(buf);
+    }
+
+    /**
+     * Creates <code>UnsynchronizedByteArrayReadStream</code>
+     * that uses <code>buf</code> as its
+     * buffer array. The buffer array is not copied.
+     *
+     * @param   buf      the input buffer.
+     * @param   offset   the offset in the buffer of the first byte to read.
+     * @param   length   the maximum number of bytes to read from the buffer.
+     */
+    public UnsynchronizedByteArrayReadStream(byte[] buf, int offset, int length) {
+        super(buf, offset, length);
+    }
+
+    @Override
+    public int read() {
+        return (pos < count) ? (buf[pos++] & 0xff) : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (pos >= count) {
+            return -1;
+        }
+
+        int avail = count - pos;
+        if (len > avail) {
+            len = avail;
+        }
+        if (len <= 0) {
+            return 0;
+        }
+        System.arraycopy(buf, pos, b, off, len);
+        pos += len;
+        return len;
+    }
+
+    @Override
+    public ByteOrder order() {
+        return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    @Override
+    public UnsynchronizedByteArrayReadStream order(ByteOrder order) {
+        bigEndian = Objects.requireNonNull(order) == ByteOrder.BIG_ENDIAN;
+        return this;
+    }
+
+    @Override
+    public short readShort() {
+        PrimitiveCodec.require(pos, count, 2);
+        short v = PrimitiveCodec.getShort(buf, pos, bigEndian);
+        pos += 2;
+        return v;
+    }
+
+    @Override
+    public int readInt() {
+        PrimitiveCodec.require(pos, count, 4);
+        int v = PrimitiveCodec.getInt(buf, pos, bigEndian);
+        pos += 4;
+        return v;
+    }
+
+    @Override
+    public long readLong() {
+        PrimitiveCodec.require(pos, count, 8);
+        long v = PrimitiveCodec.getLong(buf, pos, bigEndian);
+        pos += 8;
+        return v;
+    }
+
+    @Override
+    public float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    @Override
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    @Override
+    public int readVarInt() {
+        return PrimitiveCodec.readVarInt(this);
+    }
+
+    @Override
+    public long readVarLong() {
+        return PrimitiveCodec.readVarLong(this);
+    }
+
+    @Override
+    public int readZigZagInt() {
+        return PrimitiveCodec.unZigZag(PrimitiveCodec.readVarInt(this));
+    }
+
+    @Override
+    public long readZigZagLong() {
+        return PrimitiveCodec.unZigZag(PrimitiveCodec.readVarLong(this));
+    }
+
+    @Override
+    public String readUTF8() {
+        return PrimitiveCodec.readUTF8(this);
+    }
+
+    @Override
+    public long skip(long n) {
+        long k = count - pos;
+        if (n < k) {
+            k = n < 0 ? 0 : n;
+        }
+
+        pos += k;
+        return k;
+    }
+
+    @Override
+    public int available() {
+        return count - pos;
+    }
+
+    @Override
+    public void reset() {
+        pos = mark;
+    }
+}
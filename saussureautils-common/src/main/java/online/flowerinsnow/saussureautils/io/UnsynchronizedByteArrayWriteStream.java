@@ -0,0 +1,210 @@
+package online.flowerinsnow.saussureautils.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>不加锁的{@link ByteArrayWriteStream}，行为与其完全相同</p>
+ * <p>省去了每次写入时进入和退出监视器的开销，在JDK 15以后偏向锁被默认关闭，单字节写入的差距尤其明显</p>
+ * <p>本类不是线程安全的，只能在一个线程中使用，或由调用者自行同步</p>
+ */
+public class UnsynchronizedByteArrayWriteStream extends ByteArrayWriteStream {
+    /**
+     * Creates a new byte array output stream. The buffer capacity is
+     * initially 32 bytes, though its size increases if necessary.
+     */
+    public UnsynchronizedByteArrayWriteStream() {
+        super();
+    }
+
+    /**
+     * Creates a new byte array output stream, with a buffer capacity of
+     * the specified size, in bytes.
+     *
+     * @param   size   the initial size.
+     * @exception  IllegalArgumentException if size is negative.
+     */
+    public UnsynchronizedByteArrayWriteStream(int size) {
+        super(size);
+    }
+
+    /**
+     * 从缓冲区池中取出内部缓冲区，用完后应调用{@link #recycle()}归还
+     *
+     * @param pool 缓冲区池
+     * @param size 初始大小，实际大小可能更大
+     * @throws IllegalArgumentException 当初始大小为负数时抛出
+     */
+    public UnsynchronizedByteArrayWriteStream(BufferPool pool, int size) {
+        super(pool, size);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buf[count] = (byte) b;
+        count += 1;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if ((off < 0) || (off > b.length) || (len < 0) ||
+                ((off + len) - b.length > 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    @Override
+    public ByteOrder order() {
+        return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    @Override
+    public UnsynchronizedByteArrayWriteStream order(ByteOrder order) {
+        bigEndian = Objects.requireNonNull(order) == ByteOrder.BIG_ENDIAN;
+        return this;
+    }
+
+    @Override
+    public void writeShort(int v) {
+        ensureCapacity(count + 2);
+        count = PrimitiveCodec.putShort(buf, count, (short) v, bigEndian);
+    }
+
+    @Override
+    public void writeInt(int v) {
+        ensureCapacity(count + 4);
+        count = PrimitiveCodec.putInt(buf, count, v, bigEndian);
+    }
+
+    @Override
+    public void writeLong(long v) {
+        ensureCapacity(count + 8);
+        count = PrimitiveCodec.putLong(buf, count, v, bigEndian);
+    }
+
+    @Override
+    public void writeFloat(float v) {
+        ensureCapacity(count + 4);
+        count = PrimitiveCodec.putInt(buf, count, Float.floatToRawIntBits(v), bigEndian);
+    }
+
+    @Override
+    public void writeDouble(double v) {
+        ensureCapacity(count + 8);
+        count = PrimitiveCodec.putLong(buf, count, Double.doubleToRawLongBits(v), bigEndian);
+    }
+
+    @Override
+    public void writeVarInt(int v) {
+        ensureCapacity(count + PrimitiveCodec.MAX_VAR_INT_LENGTH);
+        count = PrimitiveCodec.putVarInt(buf, count, v);
+    }
+
+    @Override
+    public void writeVarLong(long v) {
+        ensureCapacity(count + PrimitiveCodec.MAX_VAR_LONG_LENGTH);
+        count = PrimitiveCodec.putVarLong(buf, count, v);
+    }
+
+    @Override
+    public void writeZigZagInt(int v) {
+        ensureCapacity(count + PrimitiveCodec.MAX_VAR_INT_LENGTH);
+        count = PrimitiveCodec.putVarInt(buf, count, PrimitiveCodec.zigZag(v));
+    }
+
+    @Override
+    public void writeZigZagLong(long v) {
+        ensureCapacity(count + PrimitiveCodec.MAX_VAR_LONG_LENGTH);
+        count = PrimitiveCodec.putVarLong(buf, count, PrimitiveCodec.zigZag(v));
+    }
+
+    @Override
+    public void writeUTF8(String s) {
+        PrimitiveCodec.writeUTF8(this, Objects.requireNonNull(s));
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, count);
+    }
+
+    @Override
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(buf, 0, count);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public ByteBuffer toByteBuffer() {
+        shared = true;
+        return ByteBuffer.wrap(buf, 0, count).asReadOnlyBuffer();
+    }
+
+    @Override
+    public byte[] buffer() {
+        shared = true;
+        return buf;
+    }
+
+    /**
+     * <p>创建一个读取当前数据的{@link UnsynchronizedByteArrayReadStream}，与本流共享内部缓冲区，不会复制</p>
+     * <p>在读取完毕之前不应再写入本流或调用{@link #reset()}，输入流的字节序与本流相同</p>
+     *
+     * @return 输入流
+     */
+    @Override
+    public UnsynchronizedByteArrayReadStream toReadStream() {
+        shared = true;
+        UnsynchronizedByteArrayReadStream in = new UnsynchronizedByteArrayReadStream(buf, 0, count);
+        in.bigEndian = bigEndian;
+        return in;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+    }
+
+    @Override
+    public void recycle() {
+        recycleBuffer();
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, count);
+    }
+
+    @Override
+    public String toString(String charsetName) throws UnsupportedEncodingException {
+        return new String(buf, 0, count, charsetName);
+    }
+
+    @Override
+    @Deprecated
+    public String toString(int hibyte) {
+        return new String(buf, hibyte, 0, count);
+    }
+}
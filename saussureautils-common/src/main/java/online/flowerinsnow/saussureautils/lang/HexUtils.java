@@ -1,15 +1,65 @@
 package online.flowerinsnow.saussureautils.lang;
 
+import online.flowerinsnow.saussureautils.exception.ShouldNotOccurException;
 import online.flowerinsnow.saussureautils.object.DWord;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 /**
- * 有关位的常用类
+ * <p>有关位的常用类</p>
+ * <p>编码使用512项的查找表，每个字节对应表中相邻的两个字符，编码过程不会创建任何中间对象</p>
+ * <p>不少于{@link #BULK_THRESHOLD}字节的数据改用SWAR（在一个long中同时处理8个字节）的方式编码，每次读取8个字节并写出16个字节，不需要查表</p>
  */
 public final class HexUtils {
     private static final char[] HEX = new char[] {
             '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
             'a', 'b', 'c', 'd', 'e', 'f'
     };
+    private static final char[] HEX_UPPER = new char[] {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
+            'A', 'B', 'C', 'D', 'E', 'F'
+    };
+    /**
+     * 小写查找表，字节b对应的两个字符位于下标(b &amp; 0xFF) * 2和(b &amp; 0xFF) * 2 + 1
+     */
+    private static final char[] TABLE = table(HEX);
+    /**
+     * 大写查找表
+     */
+    private static final char[] TABLE_UPPER = table(HEX_UPPER);
+    /**
+     * ASCII字符对应的数值，非十六进制字符为-1
+     */
+    private static final int[] DIGITS = new int[128];
+    /**
+     * 两个ASCII字符对应的字节，下标为(高位字符 &lt;&lt; 7 | 低位字符)，任意一个不是十六进制字符时为-1，解码时每个字节只需查一次表
+     */
+    private static final short[] PAIRS = new short[1 << 14];
+    static {
+        Arrays.fill(DIGITS, -1);
+        for (int i = 0; i < 16; i++) {
+            DIGITS[HEX[i]] = i;
+            DIGITS[HEX_UPPER[i]] = i;
+        }
+        for (int i = 0; i < PAIRS.length; i++) {
+            int high = DIGITS[i >>> 7];
+            int low = DIGITS[i & 0x7F];
+            PAIRS[i] = (short) ((high | low) < 0 ? -1 : high << 4 | low);
+        }
+    }
+
+    /**
+     * 达到此字节数时使用SWAR批量编码
+     */
+    private static final int BULK_THRESHOLD = 32;
+    private static final long NIBBLE_HIGH = 0x0F000F000F000F00L;
+    private static final long NIBBLE_LOW = 0x000F000F000F000FL;
+    private static final long ONES = 0x0101010101010101L;
 
     /**
      * 封锁构造方法，不允许创建对象
@@ -18,21 +68,300 @@ public final class HexUtils {
     }
 
     /**
-     * 将byte数组转换为十六进制字符串
+     * 将byte数组转换为小写的十六进制字符串
      *
      * @param bytes byte数组
      * @return 十六进制字符串
      */
     public static String hexToString(byte[] bytes) {
-        char[] array = new char[bytes.length * 2];
-        for (int i = 0; i < bytes.length; i++) {
-            DWord current = hex(bytes[i]);
-            array[i * 2] = current.get1();
-            array[i * 2 + 1] = current.get2();
+        return hexToString(bytes, false);
+    }
+
+    /**
+     * 将byte数组转换为十六进制字符串
+     *
+     * @param bytes byte数组
+     * @param upperCase 是否使用大写字母
+     * @return 十六进制字符串
+     */
+    public static String hexToString(byte[] bytes, boolean upperCase) {
+        if (bytes.length >= BULK_THRESHOLD) {
+            byte[] ascii = new byte[bytes.length * 2];
+            encodeBulk(ByteBuffer.wrap(bytes), ByteBuffer.wrap(ascii), upperCase);
+            return new String(ascii, StandardCharsets.ISO_8859_1);
         }
+        char[] array = new char[bytes.length * 2];
+        encode(bytes, 0, bytes.length, array, 0, upperCase ? TABLE_UPPER : TABLE);
         return new String(array);
     }
 
+    /**
+     * 将byte数组转换为小写的十六进制字符，写入到目标数组中
+     *
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @param dst 目标数组
+     * @param dstOff 写入目标数组开始的下标
+     * @return 写入的字符数，即len * 2
+     * @throws IndexOutOfBoundsException 当下标越界或目标数组空间不足时抛出
+     */
+    public static int hexToChars(byte[] src, int off, int len, char[] dst, int dstOff) throws IndexOutOfBoundsException {
+        return hexToChars(src, off, len, dst, dstOff, false);
+    }
+
+    /**
+     * 将byte数组转换为十六进制字符，写入到目标数组中
+     *
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @param dst 目标数组
+     * @param dstOff 写入目标数组开始的下标
+     * @param upperCase 是否使用大写字母
+     * @return 写入的字符数，即len * 2
+     * @throws IndexOutOfBoundsException 当下标越界或目标数组空间不足时抛出
+     */
+    public static int hexToChars(byte[] src, int off, int len, char[] dst, int dstOff, boolean upperCase) throws IndexOutOfBoundsException {
+        if (off < 0 || len < 0 || len > src.length - off || dstOff < 0 || len > (dst.length - dstOff) / 2) {
+            throw new IndexOutOfBoundsException();
+        }
+        encode(src, off, len, dst, dstOff, upperCase ? TABLE_UPPER : TABLE);
+        return len * 2;
+    }
+
+    /**
+     * 将byte数组转换为十六进制的ASCII字节，写入到目标数组中
+     *
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @param dst 目标数组
+     * @param dstOff 写入目标数组开始的下标
+     * @param upperCase 是否使用大写字母
+     * @return 写入的字节数，即len * 2
+     * @throws IndexOutOfBoundsException 当下标越界或目标数组空间不足时抛出
+     */
+    public static int hexToBytes(byte[] src, int off, int len, byte[] dst, int dstOff, boolean upperCase) throws IndexOutOfBoundsException {
+        if (off < 0 || len < 0 || len > src.length - off || dstOff < 0 || len > (dst.length - dstOff) / 2) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len >= BULK_THRESHOLD) {
+            encodeBulk(ByteBuffer.wrap(src, off, len), ByteBuffer.wrap(dst, dstOff, len * 2), upperCase);
+            return len * 2;
+        }
+        char[] table = upperCase ? TABLE_UPPER : TABLE;
+        for (int i = 0; i < len; i++) {
+            int index = (src[off + i] & 0xFF) << 1;
+            dst[dstOff++] = (byte) table[index];
+            dst[dstOff++] = (byte) table[index + 1];
+        }
+        return len * 2;
+    }
+
+    /**
+     * 将源缓冲区剩余的数据转换为十六进制的ASCII字节，写入到目标缓冲区中，完成后两个缓冲区的位置都会移动
+     *
+     * @param src 源数据，可以是直接缓冲区
+     * @param dst 目标，可以是直接缓冲区
+     * @param upperCase 是否使用大写字母
+     * @return 写入的字节数
+     * @throws BufferOverflowException 当目标缓冲区剩余空间不足时抛出，此时两个缓冲区都不会被修改
+     * @throws ReadOnlyBufferException 当目标缓冲区只读时抛出
+     */
+    public static int hexToBuffer(ByteBuffer src, ByteBuffer dst, boolean upperCase) throws BufferOverflowException, ReadOnlyBufferException {
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        int len = src.remaining();
+        if (len > dst.remaining() / 2) {
+            throw new BufferOverflowException();
+        }
+        // 复制出的缓冲区是大端序，不受调用者设置的字节序影响
+        ByteBuffer in = src.duplicate();
+        ByteBuffer out = dst.duplicate();
+        encodeBulk(in, out, upperCase);
+        src.position(src.limit());
+        dst.position(out.position());
+        return len * 2;
+    }
+
+    /**
+     * 将byte数组转换为小写的十六进制字符，追加到目标中
+     *
+     * @param dst 目标
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @return 目标本身
+     * @throws IndexOutOfBoundsException 当下标越界时抛出
+     */
+    public static StringBuilder appendHex(StringBuilder dst, byte[] src, int off, int len) throws IndexOutOfBoundsException {
+        return appendHex(dst, src, off, len, false);
+    }
+
+    /**
+     * 将byte数组转换为十六进制字符，追加到目标中
+     *
+     * @param dst 目标
+     * @param src 源数据
+     * @param off 读取源数据开始的下标
+     * @param len 读取源数据长度，从开始下标开始
+     * @param upperCase 是否使用大写字母
+     * @return 目标本身
+     * @throws IndexOutOfBoundsException 当下标越界时抛出
+     */
+    public static StringBuilder appendHex(StringBuilder dst, byte[] src, int off, int len, boolean upperCase) throws IndexOutOfBoundsException {
+        if (off < 0 || len < 0 || len > src.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        char[] table = upperCase ? TABLE_UPPER : TABLE;
+        dst.ensureCapacity(dst.length() + len * 2);
+        for (int i = 0; i < len; i++) {
+            int index = (src[off + i] & 0xFF) << 1;
+            dst.append(table[index]).append(table[index + 1]);
+        }
+        return dst;
+    }
+
+    /**
+     * 将十六进制字符串解析为byte数组，大小写均可
+     *
+     * @param src 十六进制字符串
+     * @return 解析后的数据
+     * @throws IllegalArgumentException 当长度不是偶数或含有非十六进制字符时抛出
+     */
+    public static byte[] parseHex(CharSequence src) throws IllegalArgumentException {
+        int len = src.length();
+        if ((len & 1) != 0) {
+            throw new IllegalArgumentException("Odd hex length: " + len);
+        }
+        byte[] result = new byte[len / 2];
+        parseHex(src, 0, len, result, 0);
+        return result;
+    }
+
+    /**
+     * 将十六进制字符解析为byte，写入到目标数组中，大小写均可
+     *
+     * @param src 十六进制字符
+     * @param off 读取开始的下标
+     * @param len 读取的字符数，必须为偶数
+     * @param dst 目标数组
+     * @param dstOff 写入目标数组开始的下标
+     * @return 写入的字节数，即len / 2
+     * @throws IndexOutOfBoundsException 当下标越界或目标数组空间不足时抛出
+     * @throws IllegalArgumentException 当长度不是偶数或含有非十六进制字符时抛出，此时目标数组可能已被部分写入
+     */
+    public static int parseHex(CharSequence src, int off, int len, byte[] dst, int dstOff) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (off < 0 || len < 0 || len > src.length() - off || dstOff < 0 || len / 2 > dst.length - dstOff) {
+            throw new IndexOutOfBoundsException();
+        }
+        if ((len & 1) != 0) {
+            throw new IllegalArgumentException("Odd hex length: " + len);
+        }
+        int bad = 0;
+        if (src instanceof String) {
+            // 对String直接调用，避免接口调用影响内联
+            String string = (String) src;
+            for (int i = 0, count = len / 2; i < count; i++) {
+                int b = pair(string.charAt(off + i * 2), string.charAt(off + i * 2 + 1));
+                bad |= b;
+                dst[dstOff + i] = (byte) b;
+            }
+        } else {
+            for (int i = 0, count = len / 2; i < count; i++) {
+                int b = pair(src.charAt(off + i * 2), src.charAt(off + i * 2 + 1));
+                bad |= b;
+                dst[dstOff + i] = (byte) b;
+            }
+        }
+        if (bad < 0) {
+            throw invalid(src, off, len);
+        }
+        return len / 2;
+    }
+
+    /**
+     * 将十六进制字符解析为byte，写入到目标数组中，大小写均可
+     *
+     * @param src 十六进制字符
+     * @param off 读取开始的下标
+     * @param len 读取的字符数，必须为偶数
+     * @param dst 目标数组
+     * @param dstOff 写入目标数组开始的下标
+     * @return 写入的字节数，即len / 2
+     * @throws IndexOutOfBoundsException 当下标越界或目标数组空间不足时抛出
+     * @throws IllegalArgumentException 当长度不是偶数或含有非十六进制字符时抛出，此时目标数组可能已被部分写入
+     */
+    public static int parseHex(char[] src, int off, int len, byte[] dst, int dstOff) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (off < 0 || len < 0 || len > src.length - off || dstOff < 0 || len / 2 > dst.length - dstOff) {
+            throw new IndexOutOfBoundsException();
+        }
+        if ((len & 1) != 0) {
+            throw new IllegalArgumentException("Odd hex length: " + len);
+        }
+        int bad = 0;
+        for (int i = 0, count = len / 2; i < count; i++) {
+            int b = pair(src[off + i * 2], src[off + i * 2 + 1]);
+            bad |= b;
+            dst[dstOff + i] = (byte) b;
+        }
+        if (bad < 0) {
+            throw invalid(CharBuffer.wrap(src), off, len);
+        }
+        return len / 2;
+    }
+
+    /**
+     * 将十六进制的ASCII字节解析为byte，写入到目标数组中，大小写均可
+     *
+     * @param src 十六进制的ASCII字节
+     * @param off 读取开始的下标
+     * @param len 读取的字节数，必须为偶数
+     * @param dst 目标数组，可以与源数组相同，此时结果会写入源数据的前半部分
+     * @param dstOff 写入目标数组开始的下标
+     * @return 写入的字节数，即len / 2
+     * @throws IndexOutOfBoundsException 当下标越界或目标数组空间不足时抛出
+     * @throws IllegalArgumentException 当长度不是偶数或含有非十六进制字符时抛出，此时目标数组可能已被部分写入
+     */
+    public static int parseHex(byte[] src, int off, int len, byte[] dst, int dstOff) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (off < 0 || len < 0 || len > src.length - off || dstOff < 0 || len / 2 > dst.length - dstOff) {
+            throw new IndexOutOfBoundsException();
+        }
+        if ((len & 1) != 0) {
+            throw new IllegalArgumentException("Odd hex length: " + len);
+        }
+        for (int i = 0, count = len / 2; i < count; i++) {
+            int b = pair((char) (src[off + i * 2] & 0xFF), (char) (src[off + i * 2 + 1] & 0xFF));
+            if (b < 0) {
+                // 原地解码时源数据已被覆盖，只能在出错的位置立即报告
+                int index = off + i * 2;
+                throw digit((char) (src[index] & 0xFF)) < 0 ? invalid((char) (src[index] & 0xFF), index) : invalid((char) (src[index + 1] & 0xFF), index + 1);
+            }
+            dst[dstOff + i] = (byte) b;
+        }
+        return len / 2;
+    }
+
+    /**
+     * 判断字符串是否为合法的十六进制字符串，即长度为偶数且只含有十六进制字符
+     *
+     * @param src 字符串
+     * @return 若合法，返回true
+     */
+    public static boolean isHex(CharSequence src) {
+        int len = src.length();
+        if ((len & 1) != 0) {
+            return false;
+        }
+        int bad = 0;
+        for (int i = 0; i < len; i++) {
+            bad |= digit(src.charAt(i));
+        }
+        return bad >= 0;
+    }
+
     /**
      * 将一个字节转换为十六进制字符串
      *
@@ -40,11 +369,8 @@ public final class HexUtils {
      * @return 一个字节对应的两个十六进制字符
      */
     public static DWord hex(byte b) {
-        byte left = (byte) ((b >>> 4) & 0xF);
-        byte right = (byte) (b & 0xF);
-        char one = HEX[left];
-        char two = HEX[right];
-        return new DWord(one, two);
+        int index = (b & 0xFF) << 1;
+        return new DWord(TABLE[index], TABLE[index + 1]);
     }
 
     /**
@@ -58,4 +384,80 @@ public final class HexUtils {
         System.arraycopy(HEX, 0, copy, 0, size);
         return copy;
     }
+
+    private static char[] table(char[] digits) {
+        char[] table = new char[512];
+        for (int i = 0; i < 256; i++) {
+            table[i << 1] = digits[i >>> 4];
+            table[(i << 1) + 1] = digits[i & 0xF];
+        }
+        return table;
+    }
+
+    /**
+     * 编码源缓冲区剩余的全部数据，两个缓冲区都必须是大端序且目标空间足够
+     * 每8个字节拆成两个int，每个int的4个字节展开为一个long中的8个半字节，再同时转换为8个ASCII字符
+     */
+    private static void encodeBulk(ByteBuffer src, ByteBuffer dst, boolean upperCase) {
+        long letter = upperCase ? 'A' - '0' - 10 : 'a' - '0' - 10;
+        while (src.remaining() >= 8) {
+            long v = src.getLong();
+            dst.putLong(spread((int) (v >>> 32), letter));
+            dst.putLong(spread((int) v, letter));
+        }
+        char[] table = upperCase ? TABLE_UPPER : TABLE;
+        while (src.hasRemaining()) {
+            int index = (src.get() & 0xFF) << 1;
+            dst.put((byte) table[index]);
+            dst.put((byte) table[index + 1]);
+        }
+    }
+
+    /**
+     * 将4个字节转换为8个十六进制ASCII字符，按大端序排列在long中
+     */
+    private static long spread(int value, long letter) {
+        long x = value & 0xFFFFFFFFL;
+        x = (x | x << 16) & 0x0000FFFF0000FFFFL;
+        x = (x | x << 8) & 0x00FF00FF00FF00FFL;
+        x = (x << 4 & NIBBLE_HIGH) | (x & NIBBLE_LOW);
+        // 大于9的半字节加上6后会进位到第4位，得到每个字节为0或1的掩码
+        long alpha = ((x + 0x0606060606060606L) >>> 4) & ONES;
+        return x + '0' * ONES + alpha * letter;
+    }
+
+    private static void encode(byte[] src, int off, int len, char[] dst, int dstOff, char[] table) {
+        for (int i = 0; i < len; i++) {
+            int index = (src[off + i] & 0xFF) << 1;
+            dst[dstOff++] = table[index];
+            dst[dstOff++] = table[index + 1];
+        }
+    }
+
+    /**
+     * 获取十六进制字符的数值，非十六进制字符返回-1
+     */
+    private static int digit(char c) {
+        return c < 128 ? DIGITS[c] : -1;
+    }
+
+    /**
+     * 获取两个十六进制字符组成的字节，任意一个不是十六进制字符时返回-1
+     */
+    private static int pair(char high, char low) {
+        return (high | low) < 128 ? PAIRS[high << 7 | low] : -1;
+    }
+
+    private static IllegalArgumentException invalid(CharSequence src, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            if (digit(src.charAt(i)) < 0) {
+                return invalid(src.charAt(i), i);
+            }
+        }
+        throw new ShouldNotOccurException();
+    }
+
+    private static IllegalArgumentException invalid(char c, int index) {
+        return new IllegalArgumentException("Invalid hex character '" + c + "' at index " + index);
+    }
 }